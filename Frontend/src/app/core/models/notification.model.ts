@@ -13,3 +13,12 @@ export interface Notification {
   message: string;
   status: NotificationStatus;
 }
+
+/**
+ * One page of a user's notifications, newest first.
+ * Pass nextCursor back to fetch older ones; null on the last page.
+ */
+export interface NotificationPage {
+  items: Notification[];
+  nextCursor: string | null;
+}
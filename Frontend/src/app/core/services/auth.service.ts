@@ -1,6 +1,6 @@
 import { Injectable } from '@angular/core';
 import { HttpClient } from '@angular/common/http';
-import { Observable, map, catchError, throwError } from 'rxjs';
+import { EMPTY, Observable, map, catchError, expand, reduce, throwError } from 'rxjs';
 import { User, UserRole, Gender, AuthResponse } from '../models/user.model';
 import { environment } from '../../../environments/environment';
 
@@ -16,6 +16,15 @@ interface BackendAppUser {
     isBanned?: boolean;
 }
 
+interface BackendUserPage {
+    content: BackendAppUser[];
+    page: number;
+    size: number;
+    hasNext: boolean;
+}
+
+const USER_PAGE_SIZE = 500;
+
 @Injectable({
     providedIn: 'root'
 })
@@ -102,13 +111,22 @@ export class AuthService {
         );
     }
 
+    // The unpaged listing only returns the first page, so walk the pages until the last one
     getAllUsers(): Observable<User[]> {
-        return this.http.get<BackendAppUser[]>(`${this.apiUrl}/users`).pipe(
+        return this.getUsersPage(0).pipe(
+            expand(page => page.hasNext ? this.getUsersPage(page.page + 1) : EMPTY),
+            reduce((users, page) => users.concat(page.content), [] as BackendAppUser[]),
             map(users => users.map(u => this.mapBackendUserToFrontend(u))),
             catchError(error => throwError(() => new Error(error.error?.message || 'Failed to get users')))
         );
     }
 
+    private getUsersPage(page: number): Observable<BackendUserPage> {
+        return this.http.get<BackendUserPage>(`${this.apiUrl}/users`, {
+            params: { page: String(page), size: String(USER_PAGE_SIZE) }
+        });
+    }
+
 
     banUser(userId: string): Observable<User> {
         return this.http.put<BackendAppUser>(`${this.apiUrl}/users/${userId}/ban`, {}).pipe(
@@ -1,7 +1,7 @@
 import { Injectable } from '@angular/core';
-import { HttpClient } from '@angular/common/http';
-import { Observable } from 'rxjs';
-import { Notification } from '../models/notification.model';
+import { HttpClient, HttpParams } from '@angular/common/http';
+import { Observable, map } from 'rxjs';
+import { Notification, NotificationPage, NotificationStatus } from '../models/notification.model';
 import { environment } from '../../../environments/environment';
 
 @Injectable({
@@ -14,10 +14,17 @@ export class NotificationService {
   constructor(private http: HttpClient) {}
 
   /**
-   * Get notifications for a specific user
+   * Get a page of notifications for a specific user, newest first
    */
-  getUserNotifications(userId: string): Observable<Notification[]> {
-    return this.http.get<Notification[]>(`${this.apiUrl}/${userId}`);
+  getUserNotifications(
+      userId: string,
+      options: { status?: NotificationStatus; cursor?: string; limit?: number } = {}
+  ): Observable<NotificationPage> {
+    let params = new HttpParams();
+    if (options.status) params = params.set('status', options.status);
+    if (options.cursor) params = params.set('cursor', options.cursor);
+    if (options.limit) params = params.set('limit', options.limit);
+    return this.http.get<NotificationPage>(`${this.apiUrl}/${userId}`, { params });
   }
 
   /**
@@ -57,23 +64,6 @@ export class NotificationService {
    * Mark all notifications as read for a user
    */
   markAllAsRead(userId: string): Observable<void> {
-    return new Observable(observer => {
-      this.getUserNotifications(userId).subscribe(notifications => {
-        const unread = notifications.filter(n => n.status !== 'READ');
-
-        if (unread.length === 0) {
-          observer.complete();
-          return;
-        }
-
-        let completed = 0;
-        unread.forEach(n => {
-          this.markAsRead(n.id).subscribe(() => {
-            completed++;
-            if (completed === unread.length) observer.complete();
-          });
-        });
-      });
-    });
+    return this.http.put<unknown>(`${this.apiUrl}/${userId}/read-all`, null).pipe(map(() => undefined));
   }
 }
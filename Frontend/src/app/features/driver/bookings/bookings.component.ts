@@ -242,7 +242,8 @@ export class DriverBookingsComponent implements OnInit, OnDestroy {
               // For each booking, ensure we have ride & passenger (cached when possible)
               const enriched$ = bookings.map(b => {
                 const ride$ = this.getRideCached(b.rideId);
-                const passenger$ = this.getUserCached(b.passengerId);
+                // booking-service already attaches the passenger's display name to these listings
+                const passenger$ = (b as any).passenger ? of((b as any).passenger) : this.getUserCached(b.passengerId);
 
                 // combine both - if ride or passenger call fails, we still return the booking (with undefined fields)
                 return forkJoin({
@@ -264,11 +264,9 @@ export class NavbarComponent implements OnInit, OnDestroy {
     if (!user) return;
 
     this.loadingNotificationsSignal.set(true);
-    this.notificationService.getUserNotifications(user.id).subscribe({
-      next: (notifications) => {
-        // Filter only UNREAD notifications
-        const unread = notifications.filter(n => n.status === 'UNREAD');
-        this.unreadNotificationsSignal.set(unread);
+    this.notificationService.getUserNotifications(user.id, { status: 'UNREAD', limit: 20 }).subscribe({
+      next: (page) => {
+        this.unreadNotificationsSignal.set(page.items);
         this.loadingNotificationsSignal.set(false);
       },
       error: (error) => {
@@ -1,12 +1,28 @@
 package com.example.authentication.controller;
 
 import com.example.authentication.dto.CreateAccountRequest;
+import com.example.authentication.dto.RatingUpdateRequest;
+import com.example.authentication.dto.UserFilter;
+import com.example.authentication.dto.UserProfile;
 import com.example.authentication.entities.AppUser;
+import com.example.authentication.ratelimit.LoginRateLimiter;
 import com.example.authentication.service.AuthenticationService;
+import com.example.commons.web.ConditionalGet;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -17,6 +33,8 @@ import java.util.Map;
 public class AuthenticationController {
 
     private final AuthenticationService authenticationService;
+    private final LoginRateLimiter loginRateLimiter;
+    private final ObjectMapper objectMapper;
 
     @PostMapping("/createAccount")
     public ResponseEntity<Map<String, Object>> createAccount(@RequestBody CreateAccountRequest request) {
@@ -33,10 +51,19 @@ public class AuthenticationController {
     }
 
     @PostMapping("/authenticate")
-    public ResponseEntity<Map<String, Object>> authenticate(@RequestBody Map<String, String> payload) {
+    public ResponseEntity<Map<String, Object>> authenticate(@RequestBody Map<String, String> payload,
+                                                            HttpServletRequest httpRequest) {
         String email = payload.get("email");
         String password = payload.get("password");
 
+        Duration retryAfter = loginRateLimiter.tryAcquire(email, clientIp(httpRequest));
+        if (!retryAfter.isZero()) {
+            long seconds = Math.max(1, (retryAfter.toMillis() + 999) / 1000);
+            return ResponseEntity.status(429)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(seconds))
+                    .body(Map.of("status", "failure", "error", "Too many login attempts"));
+        }
+
         boolean success = authenticationService.authenticate(email, password);
         if (success) {
             AppUser user = authenticationService.getUserByEmail(email);
@@ -54,8 +81,11 @@ public class AuthenticationController {
     }
 
     @GetMapping("/users/{userId}")
-    public ResponseEntity<?> getUserById(@PathVariable String userId) {
+    public ResponseEntity<?> getUserById(@PathVariable String userId, WebRequest request) {
         try {
+            if (ConditionalGet.notModified(request, authenticationService.getUserLastModified(userId))) {
+                return null;
+            }
             AppUser user = authenticationService.getUserById(userId);
             return ResponseEntity.ok(user);
         } catch (RuntimeException ex) {
@@ -63,9 +93,66 @@ public class AuthenticationController {
         }
     }
 
+    @PostMapping("/users/batch")
+    public ResponseEntity<?> getUsersByIds(@RequestBody List<String> userIds) {
+        try {
+            List<UserProfile> profiles = authenticationService.getUserProfiles(userIds);
+            return ResponseEntity.ok(profiles);
+        } catch (RuntimeException ex) {
+            return ResponseEntity.status(400).body(Map.of("error", ex.getMessage()));
+        }
+    }
+
     @GetMapping("/users")
-    public List<AppUser> getAllUsers() {
-        return authenticationService.getAllUsers();
+    public ResponseEntity<?> getAllUsers(
+            @RequestParam(required = false) AppUser.UserType userType,
+            @RequestParam(required = false) Boolean banned,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdTo,
+            @RequestParam(required = false) Integer page,
+            @RequestParam(defaultValue = "50") int size) {
+        UserFilter filter = new UserFilter(userType, banned, createdFrom, createdTo);
+
+        try {
+            // Without a page the plain list is kept, capped at the first page; full exports go through /users/stream
+            List<UserProfile> users = authenticationService.getUsersPage(filter, page == null ? 0 : page, size);
+            boolean hasNext = users.size() > size;
+            if (page == null) {
+                return ResponseEntity.ok(hasNext ? users.subList(0, size) : users);
+            }
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("content", hasNext ? users.subList(0, size) : users);
+            response.put("page", page);
+            response.put("size", size);
+            response.put("hasNext", hasNext);
+
+            return ResponseEntity.ok(response);
+        } catch (RuntimeException ex) {
+            return ResponseEntity.status(400).body(Map.of("error", ex.getMessage()));
+        }
+    }
+
+    @GetMapping(value = "/users/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamUsers(
+            @RequestParam(required = false) AppUser.UserType userType,
+            @RequestParam(required = false) Boolean banned,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdTo) {
+        UserFilter filter = new UserFilter(userType, banned, createdFrom, createdTo);
+
+        StreamingResponseBody body = out -> authenticationService.streamUsers(filter, user -> {
+            try {
+                out.write(objectMapper.writeValueAsBytes(user));
+                out.write('\n');
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        });
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
     }
 
     @GetMapping("/users/email/{email}")
@@ -109,4 +196,16 @@ public class AuthenticationController {
             return ResponseEntity.status(400).body(Map.of("error", ex.getMessage()));
         }
     }
+
+    @PutMapping("/users/{userId}/rating")
+    public ResponseEntity<Map<String, Object>> updateRating(@PathVariable String userId, @RequestBody RatingUpdateRequest request) {
+        authenticationService.updateRating(userId, request.rating(), request.numberOfRatings(), request.revision());
+        return ResponseEntity.ok(Map.of("status", "success"));
+    }
+
+    // Tomcat resolves X-Forwarded-For from the right, past trusted proxies only
+    // (server.forward-headers-strategy), so the left-most entry a client wrote is never used
+    private static String clientIp(HttpServletRequest request) {
+        return request.getRemoteAddr();
+    }
 }
@@ -0,0 +1,7 @@
+package com.example.authentication.dto;
+
+public record RatingUpdateRequest(
+        double rating,
+        long numberOfRatings,
+        long revision
+) {}
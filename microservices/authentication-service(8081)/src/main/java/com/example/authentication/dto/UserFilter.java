@@ -0,0 +1,12 @@
+package com.example.authentication.dto;
+
+import com.example.authentication.entities.AppUser;
+
+import java.time.LocalDateTime;
+
+public record UserFilter(
+        AppUser.UserType userType,
+        Boolean banned,
+        LocalDateTime createdFrom,
+        LocalDateTime createdTo
+) {}
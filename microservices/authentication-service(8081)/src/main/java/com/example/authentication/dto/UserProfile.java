@@ -0,0 +1,16 @@
+package com.example.authentication.dto;
+
+import com.example.authentication.entities.AppUser;
+
+import java.time.LocalDateTime;
+
+public record UserProfile(
+        String id,
+        String email,
+        String phoneNumber,
+        AppUser.Gender gender,
+        AppUser.UserType userType,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt,
+        Boolean isBanned
+) {}
@@ -4,6 +4,8 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.LocalDateTime;
@@ -12,6 +14,8 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 @NoArgsConstructor
 @Document(collection = "users")
+@CompoundIndex(name = "type_banned_created", def = "{'userType': 1, 'isBanned': 1, 'createdAt': -1}")
+@CompoundIndex(name = "banned_created", def = "{'isBanned': 1, 'createdAt': -1}")
 public class AppUser {
 
     public enum Gender {
@@ -28,6 +32,7 @@ public class AppUser {
     @Id
     private String id;
 
+    @Indexed
     private String email;
     private String password;
     private String phoneNumber;
@@ -35,6 +40,7 @@ public class AppUser {
     private Gender gender;
     private UserType userType;
 
+    @Indexed
     private LocalDateTime createdAt = LocalDateTime.now();
     private LocalDateTime updatedAt;
 
@@ -17,4 +17,5 @@ public class Driver extends AppUser {
     private Boolean isVerified;
     private Double rating;
     private double numberOfRatings;
+    private long ratingRevision;
 }
@@ -13,4 +13,6 @@ public class Passenger extends AppUser {
 
     private String preferredPaymentMethod;
     private Double rating;
+    private double numberOfRatings;
+    private long ratingRevision;
 }
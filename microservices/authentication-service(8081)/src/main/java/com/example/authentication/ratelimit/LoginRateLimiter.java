@@ -0,0 +1,55 @@
+package com.example.authentication.ratelimit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+
+@Component
+public class LoginRateLimiter {
+
+    private final TokenBucketLimiter byIp;
+    private final TokenBucketLimiter byEmail;
+    private final Counter ipRejections;
+    private final Counter emailRejections;
+
+    public LoginRateLimiter(MeterRegistry meterRegistry,
+                            @Value("${auth.login-throttle.ip-capacity:30}") int ipCapacity,
+                            @Value("${auth.login-throttle.ip-refill-period:1s}") Duration ipRefillPeriod,
+                            @Value("${auth.login-throttle.email-capacity:5}") int emailCapacity,
+                            @Value("${auth.login-throttle.email-refill-period:30s}") Duration emailRefillPeriod,
+                            @Value("${auth.login-throttle.max-keys:100000}") int maxKeys) {
+        this.byIp = new TokenBucketLimiter(ipCapacity, ipRefillPeriod, maxKeys);
+        this.byEmail = new TokenBucketLimiter(emailCapacity, emailRefillPeriod, maxKeys);
+
+        this.ipRejections = Counter.builder("auth.login.throttled").tag("key", "ip").register(meterRegistry);
+        this.emailRejections = Counter.builder("auth.login.throttled").tag("key", "email").register(meterRegistry);
+        Gauge.builder("auth.login.throttle.keys", byIp, TokenBucketLimiter::size).tag("key", "ip").register(meterRegistry);
+        Gauge.builder("auth.login.throttle.keys", byEmail, TokenBucketLimiter::size).tag("key", "email").register(meterRegistry);
+    }
+
+    /**
+     * Returns {@link Duration#ZERO} if the attempt may proceed, otherwise how long the caller should wait.
+     */
+    public Duration tryAcquire(String email, String clientIp) {
+        long wait = byIp.tryAcquire(clientIp);
+        if (wait > 0) {
+            ipRejections.increment();
+            return Duration.ofNanos(wait);
+        }
+
+        if (email != null) {
+            wait = byEmail.tryAcquire(email.trim().toLowerCase(Locale.ROOT));
+            if (wait > 0) {
+                emailRejections.increment();
+                return Duration.ofNanos(wait);
+            }
+        }
+
+        return Duration.ZERO;
+    }
+}
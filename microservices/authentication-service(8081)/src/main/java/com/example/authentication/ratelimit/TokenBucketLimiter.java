@@ -0,0 +1,115 @@
+package com.example.authentication.ratelimit;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free keyed token bucket. Each key holds a single "theoretical arrival time"
+ * (GCRA), updated with compare-and-set, so a bucket costs one AtomicLong.
+ * A bucket whose arrival time is in the past is full again and can be dropped
+ * without changing behaviour, which is how idle keys are evicted. When the table is
+ * full of active keys, the tenth with the earliest arrival times (the fullest buckets,
+ * so the least state lost) is dropped to make room: a new caller is never refused just
+ * because someone else sprayed keys. Only one caller evicts at a time; the others do
+ * not wait for it, so the table can briefly run over {@code maxKeys}.
+ */
+public class TokenBucketLimiter {
+
+    private static final long SWEEP_INTERVAL_NANOS = Duration.ofSeconds(10).toNanos();
+
+    private final long refillNanos;
+    private final long burstToleranceNanos;
+    private final int maxKeys;
+
+    private final ConcurrentHashMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final AtomicLong lastSweep = new AtomicLong(System.nanoTime());
+    private final AtomicBoolean evicting = new AtomicBoolean();
+
+    public TokenBucketLimiter(int capacity, Duration refillPeriod, int maxKeys) {
+        this.refillNanos = refillPeriod.toNanos();
+        this.burstToleranceNanos = refillNanos * (capacity - 1);
+        this.maxKeys = maxKeys;
+    }
+
+    /**
+     * Takes one token for the key. Returns 0 when allowed, otherwise the number of
+     * nanoseconds until a token becomes available.
+     */
+    public long tryAcquire(String key) {
+        long now = System.nanoTime();
+        maybeSweep(now);
+
+        AtomicLong bucket = buckets.get(key);
+        if (bucket == null) {
+            if (buckets.size() >= maxKeys) {
+                makeRoom(now);
+            }
+            bucket = buckets.computeIfAbsent(key, k -> new AtomicLong(now));
+        }
+
+        while (true) {
+            long current = bucket.get();
+            long arrival = current - now > 0 ? current : now;
+            long excess = arrival - now - burstToleranceNanos;
+            if (excess > 0) {
+                return excess;
+            }
+            if (bucket.compareAndSet(current, arrival + refillNanos)) {
+                return 0;
+            }
+        }
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+
+    private void maybeSweep(long now) {
+        long last = lastSweep.get();
+        if (now - last >= SWEEP_INTERVAL_NANOS && lastSweep.compareAndSet(last, now)) {
+            sweep(now);
+        }
+    }
+
+    private void makeRoom(long now) {
+        if (!evicting.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            if (buckets.size() < maxKeys) {
+                return;
+            }
+            sweep(now);
+            int excess = buckets.size() - maxKeys + Math.max(1, maxKeys / 10);
+            if (excess > 0) {
+                evictFullest(excess, now);
+            }
+        } finally {
+            evicting.set(false);
+        }
+    }
+
+    // One pass with a bounded heap of the earliest arrival times, rather than sorting every key
+    private void evictFullest(int count, long now) {
+        PriorityQueue<Map.Entry<String, Long>> fullest =
+                new PriorityQueue<>(count, Map.Entry.<String, Long>comparingByValue().reversed());
+        for (Map.Entry<String, AtomicLong> entry : buckets.entrySet()) {
+            long ahead = entry.getValue().get() - now;
+            if (fullest.size() < count) {
+                fullest.add(Map.entry(entry.getKey(), ahead));
+            } else if (ahead < fullest.peek().getValue()) {
+                fullest.poll();
+                fullest.add(Map.entry(entry.getKey(), ahead));
+            }
+        }
+        fullest.forEach(entry -> buckets.remove(entry.getKey()));
+    }
+
+    private void sweep(long now) {
+        buckets.entrySet().removeIf(e -> e.getValue().get() - now <= 0);
+    }
+}
@@ -1,11 +1,16 @@
 package com.example.authentication.repos;
 
+import com.example.authentication.dto.UserProfile;
 import com.example.authentication.entities.AppUser;
 import org.springframework.data.mongodb.repository.MongoRepository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface UserRepo extends MongoRepository<AppUser, String> {
 
     Optional<AppUser> findByEmail(String email);
+
+    List<UserProfile> findByIdIn(Collection<String> ids);
 }
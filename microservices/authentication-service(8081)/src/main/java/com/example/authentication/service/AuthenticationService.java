@@ -1,6 +1,8 @@
 package com.example.authentication.service;
 
 import com.example.authentication.dto.CreateAccountRequest;
+import com.example.authentication.dto.UserFilter;
+import com.example.authentication.dto.UserProfile;
 import com.example.authentication.entities.Driver;
 import com.example.authentication.entities.Passenger;
 import com.example.authentication.entities.AppUser;
@@ -8,17 +10,31 @@ import com.example.authentication.repos.DriverRepo;
 import com.example.authentication.repos.PassengerRepo;
 import com.example.authentication.repos.UserRepo;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class AuthenticationService {
 
+    public static final int MAX_BATCH_SIZE = 500;
+    public static final int MAX_PAGE_SIZE = 500;
+
     private final UserRepo userRepo;
     private final DriverRepo driverRepo;
     private final PassengerRepo passengerRepo;
+    private final MongoTemplate mongoTemplate;
 
     public AppUser createAccount(CreateAccountRequest request) {
 
@@ -60,8 +76,50 @@ public class AuthenticationService {
                 .orElse(false);
     }
 
-    public java.util.List<AppUser> getAllUsers() {
-        return userRepo.findAll();
+    // Fetches one extra row so callers can tell whether another page exists without a count
+    public List<UserProfile> getUsersPage(UserFilter filter, int page, int size) {
+        if (page < 0 || size < 1 || size > MAX_PAGE_SIZE) {
+            throw new RuntimeException("page must be >= 0 and size between 1 and " + MAX_PAGE_SIZE);
+        }
+        Query query = userQuery(filter)
+                .with(Sort.by(Sort.Direction.DESC, "createdAt", "_id"))
+                .skip((long) page * size)
+                .limit(size + 1);
+        return mongoTemplate.query(AppUser.class)
+                .as(UserProfile.class)
+                .matching(query)
+                .all();
+    }
+
+    public void streamUsers(UserFilter filter, Consumer<UserProfile> consumer) {
+        Query query = userQuery(filter).cursorBatchSize(500);
+        try (Stream<UserProfile> users = mongoTemplate.query(AppUser.class)
+                .as(UserProfile.class)
+                .matching(query)
+                .stream()) {
+            users.forEach(consumer);
+        }
+    }
+
+    private Query userQuery(UserFilter filter) {
+        Query query = new Query();
+        if (filter.userType() != null) {
+            query.addCriteria(Criteria.where("userType").is(filter.userType()));
+        }
+        if (filter.banned() != null) {
+            query.addCriteria(Criteria.where("isBanned").is(filter.banned()));
+        }
+        if (filter.createdFrom() != null || filter.createdTo() != null) {
+            Criteria createdAt = Criteria.where("createdAt");
+            if (filter.createdFrom() != null) {
+                createdAt.gte(filter.createdFrom());
+            }
+            if (filter.createdTo() != null) {
+                createdAt.lt(filter.createdTo());
+            }
+            query.addCriteria(createdAt);
+        }
+        return query;
     }
 
     public AppUser getUserById(String userId) {
@@ -69,6 +127,26 @@ public class AuthenticationService {
                 .orElseThrow(() -> new RuntimeException("User not found"));
     }
 
+    public LocalDateTime getUserLastModified(String userId) {
+        Query query = Query.query(Criteria.where("_id").is(userId));
+        query.fields().include("updatedAt", "createdAt");
+        AppUser user = mongoTemplate.findOne(query, AppUser.class);
+        if (user == null) {
+            throw new RuntimeException("User not found");
+        }
+        return user.getUpdatedAt() != null ? user.getUpdatedAt() : user.getCreatedAt();
+    }
+
+    public List<UserProfile> getUserProfiles(Collection<String> userIds) {
+        if (userIds == null || userIds.isEmpty()) {
+            return List.of();
+        }
+        if (userIds.size() > MAX_BATCH_SIZE) {
+            throw new RuntimeException("At most " + MAX_BATCH_SIZE + " user ids per request");
+        }
+        return userRepo.findByIdIn(new LinkedHashSet<>(userIds));
+    }
+
     public AppUser getUserByEmail(String email) {
         return userRepo.findByEmail(email)
                 .orElseThrow(() -> new RuntimeException("User not found"));
@@ -117,4 +195,22 @@ public class AuthenticationService {
         user.setUpdatedAt(LocalDateTime.now());
         return userRepo.save(user);
     }
+
+    public void updateRating(String userId, double rating, long numberOfRatings, long revision) {
+        // The revision only grows, so an older update arriving late must not overwrite a newer one;
+        // a rebuild gets a new revision too, which lets it lower the count
+        Query query = Query.query(new Criteria().andOperator(
+                Criteria.where("_id").is(userId),
+                new Criteria().orOperator(
+                        Criteria.where("ratingRevision").lt(revision),
+                        Criteria.where("ratingRevision").exists(false))));
+
+        Update update = new Update()
+                .set("rating", rating)
+                .set("numberOfRatings", (double) numberOfRatings)
+                .set("ratingRevision", revision)
+                .set("updatedAt", LocalDateTime.now());
+
+        mongoTemplate.updateFirst(query, update, AppUser.class);
+    }
 }
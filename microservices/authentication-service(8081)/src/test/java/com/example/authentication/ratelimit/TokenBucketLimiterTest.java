@@ -0,0 +1,105 @@
+package com.example.authentication.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenBucketLimiterTest {
+
+    @Test
+    void allowsTheBurstThenReportsTheWait() {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(3, Duration.ofSeconds(30), 100);
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(limiter.tryAcquire("alice@example.com")).isZero();
+        }
+
+        assertThat(limiter.tryAcquire("alice@example.com"))
+                .isPositive()
+                .isLessThanOrEqualTo(Duration.ofSeconds(30).toNanos());
+        assertThat(limiter.tryAcquire("bob@example.com")).isZero();
+    }
+
+    @Test
+    void fullTableEvictsTheOldestKeysInsteadOfRefusingNewOnes() {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(1, Duration.ofMinutes(1), 10);
+        for (int i = 0; i < 10; i++) {
+            limiter.tryAcquire("key-" + i);
+        }
+
+        assertThat(limiter.tryAcquire("newcomer")).isZero();
+        assertThat(limiter.size()).isLessThanOrEqualTo(10);
+        // The most recent keys keep their state
+        assertThat(limiter.tryAcquire("key-9")).isPositive();
+        // The oldest one was dropped and starts over with a full bucket
+        assertThat(limiter.tryAcquire("key-0")).isZero();
+    }
+
+    @Test
+    void concurrentCallersNeverExceedTheBurst() throws InterruptedException {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(50, Duration.ofMinutes(1), 100);
+        AtomicInteger allowed = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+
+        for (int t = 0; t < 8; t++) {
+            pool.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < 10_000; i++) {
+                    if (limiter.tryAcquire("10.0.0.1") == 0) {
+                        allowed.incrementAndGet();
+                    }
+                }
+            });
+        }
+        start.countDown();
+        pool.shutdown();
+        assertThat(pool.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(allowed).hasValue(50);
+    }
+
+    @Test
+    void concurrentKeySprayNeverRefusesAndStaysNearTheLimit() throws InterruptedException {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(1, Duration.ofMinutes(1), 1_000);
+        AtomicInteger refused = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+
+        for (int t = 0; t < 8; t++) {
+            int thread = t;
+            pool.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < 20_000; i++) {
+                    if (limiter.tryAcquire("spray-" + thread + "-" + i) != 0) {
+                        refused.incrementAndGet();
+                    }
+                }
+            });
+        }
+        start.countDown();
+        pool.shutdown();
+        assertThat(pool.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(refused).hasValue(0);
+        // Callers that find an eviction already running insert without waiting for it
+        assertThat(limiter.size()).isLessThanOrEqualTo(1_000 + 8);
+    }
+}
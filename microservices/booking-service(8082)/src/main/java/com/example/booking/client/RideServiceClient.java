@@ -0,0 +1,31 @@
+package com.example.booking.client;
+
+import com.example.booking.dto.RideSummary;
+import com.example.commons.http.ServiceHttpClient;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.List;
+
+@Component
+@RequiredArgsConstructor
+public class RideServiceClient {
+
+    private static final String RIDE_URL = "http://ride-service/api/rides/{rideId}";
+    private static final String DRIVER_RIDES_URL = "http://ride-service/api/rides/driver/{driverId}";
+
+    private final ServiceHttpClient httpClient;
+
+    public RideSummary getRide(String rideId) {
+        return httpClient.get(RIDE_URL, RideSummary.class, rideId);
+    }
+
+    public List<String> getDriverRideIds(String driverId) {
+        RideSummary[] rides = httpClient.get(DRIVER_RIDES_URL, RideSummary[].class, driverId);
+        if (rides == null) {
+            return List.of();
+        }
+        return Arrays.stream(rides).map(RideSummary::id).toList();
+    }
+}
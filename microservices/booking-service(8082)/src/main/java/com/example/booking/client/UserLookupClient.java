@@ -0,0 +1,52 @@
+package com.example.booking.client;
+
+import com.example.booking.dto.UserProfile;
+import com.example.commons.http.ServiceHttpClient;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Resolves user profiles from authentication-service through
+ * {@code POST /api/auth/users/batch}, one call per chunk of ids.
+ */
+@Component
+public class UserLookupClient {
+
+    private static final String BATCH_URL = "http://authentication-service/api/auth/users/batch";
+    // authentication-service rejects larger batches
+    private static final int MAX_BATCH_SIZE = 500;
+
+    private final ServiceHttpClient httpClient;
+    private final int maxBatchSize;
+
+    public UserLookupClient(ServiceHttpClient httpClient,
+                            @Value("${user-lookup.max-batch-size:200}") int maxBatchSize) {
+        this.httpClient = httpClient;
+        this.maxBatchSize = Math.max(1, Math.min(maxBatchSize, MAX_BATCH_SIZE));
+    }
+
+    /**
+     * Returns the profiles by user id; ids of users that do not exist are absent.
+     */
+    public Map<String, UserProfile> getUsers(Collection<String> userIds) {
+        Map<String, UserProfile> result = new HashMap<>();
+        List<String> ids = new ArrayList<>(new LinkedHashSet<>(userIds));
+        for (int from = 0; from < ids.size(); from += maxBatchSize) {
+            List<String> chunk = ids.subList(from, Math.min(from + maxBatchSize, ids.size()));
+            UserProfile[] profiles = httpClient.post(BATCH_URL, chunk, UserProfile[].class);
+            if (profiles != null) {
+                for (UserProfile profile : profiles) {
+                    result.put(profile.id(), profile);
+                }
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.booking.dto;
+
+// What a driver's booking listing shows about a passenger; contact details stay out
+public record PassengerSummary(String id, String name) {
+
+    // Users have no display name, so the frontend shows the local part of the email
+    public static PassengerSummary of(UserProfile profile) {
+        if (profile == null) {
+            return null;
+        }
+        String email = profile.email();
+        String name = email == null || email.indexOf('@') < 0 ? email : email.substring(0, email.indexOf('@'));
+        return new PassengerSummary(profile.id(), name);
+    }
+}
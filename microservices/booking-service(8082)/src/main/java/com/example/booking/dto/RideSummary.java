@@ -0,0 +1,7 @@
+package com.example.booking.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record RideSummary(String id, String driverId, String status) {
+}
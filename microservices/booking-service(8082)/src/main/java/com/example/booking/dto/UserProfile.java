@@ -0,0 +1,14 @@
+package com.example.booking.dto;
+
+import java.time.LocalDateTime;
+
+public record UserProfile(
+        String id,
+        String email,
+        String phoneNumber,
+        String gender,
+        String userType,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt,
+        Boolean isBanned
+) {}
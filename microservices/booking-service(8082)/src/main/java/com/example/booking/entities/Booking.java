@@ -1,18 +1,26 @@
 package com.example.booking.entities;
 
+import com.example.booking.dto.PassengerSummary;
 import com.example.booking.enums.BookingStatus;
+import com.example.commons.outbox.OutboxEvent;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Transient;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
 @Document(collection = "bookings")
+@CompoundIndex(name = "pending_events", def = "{'pendingEvents.occurredAt': 1}")
 public class Booking {
 
     @Id
@@ -27,4 +35,12 @@ public class Booking {
 
     private LocalDateTime createdAt = LocalDateTime.now();
     private LocalDateTime updatedAt;
+
+    // Domain events not yet relayed, written together with the state change
+    @JsonIgnore
+    private List<OutboxEvent> pendingEvents = new ArrayList<>();
+
+    // Filled in on the driver-facing listings, from one batched lookup; not stored
+    @Transient
+    private PassengerSummary passenger;
 }
@@ -1,6 +1,7 @@
 package com.example.booking.repository;
 
 import com.example.booking.entities.Booking;
+import com.example.booking.enums.BookingStatus;
 import org.springframework.data.mongodb.repository.MongoRepository;
 
 import java.util.List;
@@ -10,4 +11,6 @@ public interface BookingRepository extends MongoRepository<Booking, String> {
     List<Booking> findByPassengerId(String passengerId);
 
     List<Booking> findByRideId(String rideId);
+
+    List<Booking> findByRideIdInAndStatus(List<String> rideIds, BookingStatus status);
 }
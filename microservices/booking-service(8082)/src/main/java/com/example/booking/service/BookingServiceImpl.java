@@ -1,22 +1,40 @@
 package com.example.booking.service;
 
+import com.example.booking.client.RideServiceClient;
+import com.example.booking.client.UserLookupClient;
 import com.example.booking.dto.CreateBookingRequest;
 import com.example.booking.dto.BookingResponse;
+import com.example.booking.dto.PassengerSummary;
+import com.example.booking.dto.RideSummary;
+import com.example.booking.dto.UserProfile;
 import com.example.booking.entities.Booking;
 import com.example.booking.enums.BookingStatus;
 import com.example.booking.repository.BookingRepository;
+import com.example.commons.outbox.OutboxEvent;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClientException;
 
 import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Objects;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class BookingServiceImpl implements BookingService {
 
     private final BookingRepository bookingRepository;
+    private final MongoTemplate mongoTemplate;
+    private final RideServiceClient rideServiceClient;
+    private final UserLookupClient userLookupClient;
 
     @Override
     public BookingResponse bookRide(CreateBookingRequest request) {
@@ -26,6 +44,7 @@ public class BookingServiceImpl implements BookingService {
         booking.setPassengerId(request.getPassengerId());
         booking.setSeatsBooked(request.getSeats());
         booking.setStatus(BookingStatus.PENDING);
+        booking.getPendingEvents().add(OutboxEvent.of("BookingRequested", eventPayload(booking)));
 
         Booking saved = bookingRepository.save(booking);
 
@@ -48,10 +67,7 @@ public class BookingServiceImpl implements BookingService {
             throw new RuntimeException("You cannot cancel another user's booking");
         }
 
-        booking.setStatus(BookingStatus.CANCELLED);
-        booking.setUpdatedAt(LocalDateTime.now());
-
-        bookingRepository.save(booking);
+        changeStatus(booking, BookingStatus.CANCELLED, "BookingCancelled");
     }
 
     @Override
@@ -59,12 +75,9 @@ public class BookingServiceImpl implements BookingService {
         Booking booking = bookingRepository.findById(bookingId)
                 .orElseThrow(() -> new RuntimeException("Booking not found"));
 
-        // TODO: Verify driver owns the ride
-        // This would require calling ride-service to check ride ownership
+        verifyRideOwner(booking, driverId);
 
-        booking.setStatus(BookingStatus.ACCEPTED);
-        booking.setUpdatedAt(LocalDateTime.now());
-        bookingRepository.save(booking);
+        changeStatus(booking, BookingStatus.ACCEPTED, "BookingAccepted");
     }
 
     @Override
@@ -72,12 +85,38 @@ public class BookingServiceImpl implements BookingService {
         Booking booking = bookingRepository.findById(bookingId)
                 .orElseThrow(() -> new RuntimeException("Booking not found"));
 
-        // TODO: Verify driver owns the ride
-        // This would require calling ride-service to check ride ownership
+        verifyRideOwner(booking, driverId);
+
+        changeStatus(booking, BookingStatus.REJECTED, "BookingRejected");
+    }
+
+    private void verifyRideOwner(Booking booking, String driverId) {
+        RideSummary ride = rideServiceClient.getRide(booking.getRideId());
+        if (ride == null || !driverId.equals(ride.driverId())) {
+            throw new RuntimeException("You cannot manage bookings of another driver's ride");
+        }
+    }
+
+    // Status and event go out in one update, so the event exists exactly when the change does
+    private void changeStatus(Booking booking, BookingStatus status, String eventType) {
+        booking.setStatus(status);
+        OutboxEvent event = OutboxEvent.of(eventType, eventPayload(booking));
+        mongoTemplate.updateFirst(
+                Query.query(Criteria.where("_id").is(booking.getId())),
+                new Update()
+                        .set("status", status)
+                        .set("updatedAt", LocalDateTime.now())
+                        .push("pendingEvents", event),
+                Booking.class);
+    }
 
-        booking.setStatus(BookingStatus.REJECTED);
-        booking.setUpdatedAt(LocalDateTime.now());
-        bookingRepository.save(booking);
+    private static Map<String, Object> eventPayload(Booking booking) {
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("rideId", booking.getRideId());
+        payload.put("passengerId", booking.getPassengerId());
+        payload.put("seatsBooked", booking.getSeatsBooked());
+        payload.put("status", booking.getStatus().name());
+        return payload;
     }
 
     @Override
@@ -87,15 +126,31 @@ public class BookingServiceImpl implements BookingService {
 
     @Override
     public List<Booking> getBookingsByRide(String rideId) {
-        return bookingRepository.findByRideId(rideId);
+        return withPassengers(bookingRepository.findByRideId(rideId));
     }
 
     @Override
-public List<Booking> getPendingBookingsByDriver(String driverId) {
-    // Pour l'instant, retourne tous les bookings PENDING
-    // En production, il faudrait appeler ride-service pour filtrer par driver
-    return bookingRepository.findAll().stream()
-            .filter(b -> b.getStatus() == BookingStatus.PENDING)
-            .collect(Collectors.toList());
-}
+    public List<Booking> getPendingBookingsByDriver(String driverId) {
+        List<String> rideIds = rideServiceClient.getDriverRideIds(driverId);
+        if (rideIds.isEmpty()) {
+            return List.of();
+        }
+        return withPassengers(bookingRepository.findByRideIdInAndStatus(rideIds, BookingStatus.PENDING));
+    }
+
+    // One batch call for the whole list instead of a profile lookup per row; the list is
+    // still served without profiles if authentication-service cannot answer
+    private List<Booking> withPassengers(List<Booking> bookings) {
+        if (bookings.isEmpty()) {
+            return bookings;
+        }
+        try {
+            Map<String, UserProfile> profiles = userLookupClient.getUsers(
+                    bookings.stream().map(Booking::getPassengerId).filter(Objects::nonNull).toList());
+            bookings.forEach(booking -> booking.setPassenger(PassengerSummary.of(profiles.get(booking.getPassengerId()))));
+        } catch (RestClientException ex) {
+            log.warn("Passenger profiles unavailable: {}", ex.getMessage());
+        }
+        return bookings;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,54 @@
+package com.example.booking.client;
+
+import com.example.booking.dto.UserProfile;
+import com.example.commons.http.ServiceHttpClient;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UserLookupClientTest {
+
+    private final ServiceHttpClient httpClient = mock(ServiceHttpClient.class);
+
+    @Test
+    void lookupsAreChunkedToTheBatchLimitOfAuthenticationService() {
+        when(httpClient.post(anyString(), any(), eq(UserProfile[].class)))
+                .thenAnswer(call -> ((Collection<?>) call.getArgument(1)).stream()
+                        .map(id -> new UserProfile((String) id, id + "@example.com", null, null, null, null, null, false))
+                        .toArray(UserProfile[]::new));
+        UserLookupClient client = new UserLookupClient(httpClient, 1_000);
+        List<String> ids = IntStream.range(0, 1_200).mapToObj(i -> "u" + i).toList();
+
+        Map<String, UserProfile> profiles = client.getUsers(ids);
+
+        assertThat(profiles).hasSize(1_200);
+        ArgumentCaptor<Collection<String>> chunks = ArgumentCaptor.forClass(Collection.class);
+        verify(httpClient, times(3)).post(anyString(), chunks.capture(), eq(UserProfile[].class));
+        assertThat(chunks.getAllValues()).extracting(Collection::size).containsExactly(500, 500, 200);
+    }
+
+    @Test
+    void duplicateIdsAreLookedUpOnce() {
+        when(httpClient.post(anyString(), any(), eq(UserProfile[].class))).thenReturn(new UserProfile[0]);
+        UserLookupClient client = new UserLookupClient(httpClient, 200);
+
+        client.getUsers(List.of("u1", "u1", "u2"));
+
+        ArgumentCaptor<Collection<String>> chunk = ArgumentCaptor.forClass(Collection.class);
+        verify(httpClient).post(anyString(), chunk.capture(), eq(UserProfile[].class));
+        assertThat(chunk.getValue()).containsExactly("u1", "u2");
+    }
+}
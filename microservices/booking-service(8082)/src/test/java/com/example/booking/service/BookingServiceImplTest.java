@@ -0,0 +1,94 @@
+package com.example.booking.service;
+
+import com.example.booking.client.RideServiceClient;
+import com.example.booking.client.UserLookupClient;
+import com.example.booking.dto.PassengerSummary;
+import com.example.booking.dto.UserProfile;
+import com.example.booking.entities.Booking;
+import com.example.booking.enums.BookingStatus;
+import com.example.booking.repository.BookingRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BookingServiceImplTest {
+
+    private BookingRepository bookingRepository;
+    private RideServiceClient rideServiceClient;
+    private UserLookupClient userLookupClient;
+    private BookingServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        bookingRepository = mock(BookingRepository.class);
+        rideServiceClient = mock(RideServiceClient.class);
+        userLookupClient = mock(UserLookupClient.class);
+        service = new BookingServiceImpl(bookingRepository, mock(MongoTemplate.class), rideServiceClient, userLookupClient);
+    }
+
+    @Test
+    void rideListingResolvesAllPassengersInOneCall() {
+        when(bookingRepository.findByRideId("r1"))
+                .thenReturn(List.of(booking("b1", "alice"), booking("b2", "bob"), booking("b3", "alice")));
+        when(userLookupClient.getUsers(any())).thenReturn(Map.of(
+                "alice", profile("alice"),
+                "bob", profile("bob")));
+
+        List<Booking> bookings = service.getBookingsByRide("r1");
+
+        assertThat(bookings).extracting(Booking::getPassenger).containsExactly(
+                new PassengerSummary("alice", "alice"),
+                new PassengerSummary("bob", "bob"),
+                new PassengerSummary("alice", "alice"));
+        verify(userLookupClient, times(1)).getUsers(any(Collection.class));
+    }
+
+    @Test
+    void pendingListingKeepsBookingsWithoutProfilesWhenLookupFails() {
+        when(rideServiceClient.getDriverRideIds("driver")).thenReturn(List.of("r1"));
+        when(bookingRepository.findByRideIdInAndStatus(List.of("r1"), BookingStatus.PENDING))
+                .thenReturn(List.of(booking("b1", "alice")));
+        when(userLookupClient.getUsers(any())).thenThrow(new ResourceAccessException("down"));
+
+        List<Booking> bookings = service.getPendingBookingsByDriver("driver");
+
+        assertThat(bookings).singleElement().satisfies(booking -> {
+            assertThat(booking.getId()).isEqualTo("b1");
+            assertThat(booking.getPassenger()).isNull();
+        });
+    }
+
+    @Test
+    void emptyListingSkipsTheLookup() {
+        when(bookingRepository.findByRideId("r1")).thenReturn(List.of());
+
+        assertThat(service.getBookingsByRide("r1")).isEmpty();
+        verify(userLookupClient, never()).getUsers(any());
+    }
+
+    private static Booking booking(String id, String passengerId) {
+        Booking booking = new Booking();
+        booking.setId(id);
+        booking.setRideId("r1");
+        booking.setPassengerId(passengerId);
+        booking.setStatus(BookingStatus.PENDING);
+        return booking;
+    }
+
+    private static UserProfile profile(String id) {
+        return new UserProfile(id, id + "@example.com", null, null, "PASSENGER", null, null, false);
+    }
+}
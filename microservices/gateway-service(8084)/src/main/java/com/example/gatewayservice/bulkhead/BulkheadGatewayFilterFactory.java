@@ -0,0 +1,107 @@
+package com.example.gatewayservice.bulkhead;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Data;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.support.HasRouteId;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Caps the number of requests a route may have in flight. Over the cap the gateway
+ * answers 503 at once instead of queueing, so one slow backend cannot absorb the
+ * connections and memory the other routes need. Configured per route:
+ * {@code - Bulkhead=100}.
+ *
+ * There is one bulkhead per route id. Routes are rebuilt on every refresh, and the
+ * new filter resizes the existing bulkhead, so requests still in flight keep counting
+ * against the cap and the gauge keeps reporting the live count.
+ */
+@Component
+public class BulkheadGatewayFilterFactory extends AbstractGatewayFilterFactory<BulkheadGatewayFilterFactory.Config> {
+
+    private static final byte[] REJECTED_BODY =
+            "{\"error\":\"Service is at capacity, retry shortly\"}".getBytes(StandardCharsets.UTF_8);
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Bulkhead> bulkheads = new ConcurrentHashMap<>();
+
+    public BulkheadGatewayFilterFactory(MeterRegistry meterRegistry) {
+        super(Config.class);
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public List<String> shortcutFieldOrder() {
+        return List.of("maxConcurrent");
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        String routeId = config.getRouteId() != null ? config.getRouteId() : "unknown";
+        Bulkhead bulkhead = bulkheads.compute(routeId, (id, existing) -> {
+            if (existing == null) {
+                return new Bulkhead(id, config.getMaxConcurrent());
+            }
+            existing.limit = config.getMaxConcurrent();
+            return existing;
+        });
+
+        return (exchange, chain) -> {
+            if (!bulkhead.tryAcquire()) {
+                bulkhead.rejected.increment();
+                ServerHttpResponse response = exchange.getResponse();
+                response.setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+                response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+                response.getHeaders().set("Retry-After", "1");
+                return response.writeWith(Mono.just(response.bufferFactory().wrap(REJECTED_BODY)));
+            }
+            return chain.filter(exchange).doFinally(signal -> bulkhead.inFlight.decrementAndGet());
+        };
+    }
+
+    // A counter rather than a Semaphore so the limit can change while requests are in flight
+    private final class Bulkhead {
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final Counter rejected;
+        private volatile int limit;
+
+        private Bulkhead(String routeId, int limit) {
+            this.limit = limit;
+            this.rejected = Counter.builder("gateway.bulkhead.rejected").tag("route", routeId).register(meterRegistry);
+            Gauge.builder("gateway.bulkhead.in-use", inFlight, AtomicInteger::get)
+                    .tag("route", routeId)
+                    .register(meterRegistry);
+        }
+
+        private boolean tryAcquire() {
+            while (true) {
+                int current = inFlight.get();
+                if (current >= limit) {
+                    return false;
+                }
+                if (inFlight.compareAndSet(current, current + 1)) {
+                    return true;
+                }
+            }
+        }
+    }
+
+    @Data
+    public static class Config implements HasRouteId {
+        private int maxConcurrent = 100;
+        private String routeId;
+    }
+}
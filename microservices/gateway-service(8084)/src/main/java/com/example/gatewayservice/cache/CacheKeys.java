@@ -0,0 +1,34 @@
+package com.example.gatewayservice.cache;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.util.DigestUtils;
+
+/**
+ * Identifies a GET's representation: path, query and Accept, plus the caller's
+ * Authorization unless the response is shared. Used by the response cache and by
+ * single-flight, so both agree on which requests are the same.
+ */
+public final class CacheKeys {
+
+    private CacheKeys() {
+    }
+
+    public static String of(ServerHttpRequest request, boolean shared) {
+        StringBuilder key = new StringBuilder(request.getURI().getRawPath());
+        if (request.getURI().getRawQuery() != null) {
+            key.append('?').append(request.getURI().getRawQuery());
+        }
+        // Services answer JSON or CBOR depending on Accept, so each representation is kept apart
+        key.append('|').append(acceptKey(request.getHeaders()));
+        String authorization = request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        if (!shared && authorization != null) {
+            key.append('#').append(DigestUtils.md5DigestAsHex(authorization.getBytes()));
+        }
+        return key.toString();
+    }
+
+    private static String acceptKey(HttpHeaders headers) {
+        return String.join(",", headers.getOrEmpty(HttpHeaders.ACCEPT)).replace(" ", "").toLowerCase();
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.gatewayservice.cache;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * A fully buffered upstream response that can be written again to other exchanges,
+ * either from the response cache or to requests collapsed onto one upstream call.
+ */
+public record CachedResponse(
+        HttpStatusCode status,
+        HttpHeaders headers,
+        byte[] body,
+        String etag,
+        long expiresAtNanos
+) {
+
+    public static CachedResponse of(HttpStatusCode status, HttpHeaders source, byte[] body, long expiresAtNanos) {
+        HttpHeaders copy = new HttpHeaders();
+        source.forEach((name, values) -> {
+            String lower = name.toLowerCase();
+            if (!lower.startsWith("access-control-") && !lower.equals("transfer-encoding")
+                    && !lower.equals("connection") && !lower.equals("content-length")) {
+                copy.put(name, List.copyOf(values));
+            }
+        });
+        return new CachedResponse(status, copy, body, source.getETag(), expiresAtNanos);
+    }
+
+    public boolean isExpired(long nowNanos) {
+        return nowNanos - expiresAtNanos >= 0;
+    }
+
+    public Mono<Void> writeTo(ServerHttpResponse response) {
+        response.setStatusCode(status);
+        HttpHeaders target = response.getHeaders();
+        // Headers already on the response (CORS) are computed for this request and win
+        headers.forEach((name, values) -> {
+            if (!target.containsKey(name)) {
+                target.put(name, values);
+            }
+        });
+        target.setContentLength(body.length);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
+    }
+}
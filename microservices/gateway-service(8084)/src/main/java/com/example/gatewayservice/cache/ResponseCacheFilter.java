@@ -0,0 +1,216 @@
+package com.example.gatewayservice.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.PathContainer;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Caches successful GET responses for the routes listed under {@code gateway.cache.rules}
+ * and answers {@code If-None-Match} with 304 from the gateway. The backend's ETag is
+ * kept when it sends one; otherwise one is derived from the body.
+ *
+ * Runs before the single-flight filter, so only cache misses are coalesced upstream.
+ */
+@Component
+public class ResponseCacheFilter implements GlobalFilter, Ordered {
+
+    public static final int ORDER = -3;
+
+    private final ResponseCacheProperties properties;
+    private final ResponseCacheStore store;
+    private final List<CompiledRule> rules;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+
+    public ResponseCacheFilter(ResponseCacheProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.store = new ResponseCacheStore(properties.getMaxEntries(), properties.getMaxSize().toBytes());
+        this.rules = properties.getRules().stream()
+                .map(rule -> new CompiledRule(
+                        rule.getName() != null ? rule.getName() : rule.getPath(),
+                        PathPatternParser.defaultInstance.parse(rule.getPath()),
+                        rule.getTtl(),
+                        rule.isShared()))
+                .toList();
+        Gauge.builder("gateway.cache.entries", store, ResponseCacheStore::size).register(meterRegistry);
+        Gauge.builder("gateway.cache.size", store, ResponseCacheStore::bytes).baseUnit("bytes").register(meterRegistry);
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        if (!properties.isEnabled() || request.getMethod() != HttpMethod.GET) {
+            return chain.filter(exchange);
+        }
+        CompiledRule rule = match(request.getPath().pathWithinApplication());
+        if (rule == null || isNoCache(request.getHeaders())) {
+            return chain.filter(exchange);
+        }
+
+        String key = CacheKeys.of(request, rule.shared());
+        CachedResponse cached = store.get(key, System.nanoTime());
+        if (cached != null) {
+            if (etagMatches(request.getHeaders(), cached.etag())) {
+                count(rule, "not_modified");
+                return notModified(exchange.getResponse(), cached.etag());
+            }
+            count(rule, "hit");
+            exchange.getResponse().getHeaders().set("X-Cache", "HIT");
+            return cached.writeTo(exchange.getResponse());
+        }
+
+        count(rule, "miss");
+        return chain.filter(exchange.mutate().response(new CachingResponse(exchange, key, rule)).build());
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    private CompiledRule match(PathContainer path) {
+        for (CompiledRule rule : rules) {
+            if (rule.pattern().matches(path)) {
+                return rule;
+            }
+        }
+        return null;
+    }
+
+    private static void varyOnAccept(HttpHeaders headers) {
+        List<String> vary = headers.getVary();
+        if (vary.stream().noneMatch(value -> value.equalsIgnoreCase(HttpHeaders.ACCEPT) || value.equals("*"))) {
+            List<String> merged = new ArrayList<>(vary);
+            merged.add(HttpHeaders.ACCEPT);
+            headers.setVary(merged);
+        }
+    }
+
+    private static boolean isNoCache(HttpHeaders headers) {
+        String cacheControl = headers.getCacheControl();
+        return cacheControl != null && (cacheControl.contains("no-cache") || cacheControl.contains("no-store"));
+    }
+
+    private static boolean etagMatches(HttpHeaders requestHeaders, String etag) {
+        if (etag == null) {
+            return false;
+        }
+        for (String candidate : requestHeaders.getIfNoneMatch()) {
+            if ("*".equals(candidate) || stripWeak(candidate).equals(stripWeak(etag))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String stripWeak(String etag) {
+        return etag.startsWith("W/") ? etag.substring(2) : etag;
+    }
+
+    private static Mono<Void> notModified(ServerHttpResponse response, String etag) {
+        response.setStatusCode(HttpStatus.NOT_MODIFIED);
+        response.getHeaders().setETag(etag);
+        response.getHeaders().set("X-Cache", "HIT");
+        return response.setComplete();
+    }
+
+    private void count(CompiledRule rule, String result) {
+        counters.computeIfAbsent(rule.name() + "|" + result, k -> Counter.builder("gateway.cache.requests")
+                .description("GET requests on cached routes by outcome")
+                .tag("route", rule.name())
+                .tag("result", result)
+                .register(meterRegistry)).increment();
+    }
+
+    private record CompiledRule(String name, PathPattern pattern, Duration ttl, boolean shared) {
+    }
+
+    /**
+     * Buffers the upstream body so it can be stored, tags it with an ETag, and turns
+     * the response into a 304 when the client already holds that version.
+     */
+    private class CachingResponse extends ServerHttpResponseDecorator {
+
+        private final ServerWebExchange exchange;
+        private final String key;
+        private final CompiledRule rule;
+
+        CachingResponse(ServerWebExchange exchange, String key, CompiledRule rule) {
+            super(exchange.getResponse());
+            this.exchange = exchange;
+            this.key = key;
+            this.rule = rule;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            if (getStatusCode() == null || getStatusCode().value() != HttpStatus.OK.value() || !isStorable(getHeaders())) {
+                return super.writeWith(body);
+            }
+            return DataBufferUtils.join(Flux.from(body))
+                    .flatMap(joined -> {
+                        byte[] bytes = new byte[joined.readableByteCount()];
+                        joined.read(bytes);
+                        DataBufferUtils.release(joined);
+
+                        HttpHeaders headers = getHeaders();
+                        varyOnAccept(headers);
+                        String etag = headers.getETag();
+                        if (etag == null) {
+                            etag = "\"" + DigestUtils.md5DigestAsHex(bytes) + "\"";
+                            headers.setETag(etag);
+                        }
+                        if (bytes.length <= properties.getMaxBodySize().toBytes()) {
+                            store.put(key, CachedResponse.of(getStatusCode(), headers, bytes,
+                                    System.nanoTime() + rule.ttl().toNanos()));
+                        }
+
+                        headers.set("X-Cache", "MISS");
+                        if (etagMatches(exchange.getRequest().getHeaders(), etag)) {
+                            setStatusCode(HttpStatus.NOT_MODIFIED);
+                            headers.remove(HttpHeaders.CONTENT_LENGTH);
+                            headers.remove(HttpHeaders.CONTENT_TYPE);
+                            return setComplete();
+                        }
+                        return super.writeWith(Mono.just(bufferFactory().wrap(bytes)));
+                    });
+        }
+
+        private boolean isStorable(HttpHeaders headers) {
+            String cacheControl = headers.getCacheControl();
+            if (cacheControl != null && (cacheControl.contains("no-store") || cacheControl.contains("private"))) {
+                return false;
+            }
+            long length = headers.getContentLength();
+            return !headers.containsKey(HttpHeaders.SET_COOKIE)
+                    && (length < 0 || length <= properties.getMaxBodySize().toBytes());
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.gatewayservice.cache;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "gateway.cache")
+public class ResponseCacheProperties {
+
+    private boolean enabled = true;
+    private int maxEntries = 10_000;
+    // Total size of cached responses; the least recently used are evicted beyond it
+    private DataSize maxSize = DataSize.ofMegabytes(64);
+    private DataSize maxBodySize = DataSize.ofKilobytes(256);
+    private List<Rule> rules = new ArrayList<>();
+
+    @Data
+    public static class Rule {
+        // Metric tag; defaults to the path pattern
+        private String name;
+        // Gateway path pattern, e.g. /ride-service/api/rides/{rideId}
+        private String path;
+        private Duration ttl = Duration.ofSeconds(30);
+        // Same response for every caller; otherwise entries are kept per Authorization header
+        private boolean shared;
+    }
+}
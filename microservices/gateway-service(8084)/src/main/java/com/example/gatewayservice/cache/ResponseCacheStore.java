@@ -0,0 +1,83 @@
+package com.example.gatewayservice.cache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bounded LRU of cached responses. Access order is kept by a LinkedHashMap under a
+ * lock; every operation is O(1) amortized, so the critical section stays short.
+ *
+ * The bound is in bytes (body, key and headers, plus a fixed per-entry overhead)
+ * with an entry cap on top, so a handful of large search results cannot push the
+ * gateway's heap past what the count alone would suggest.
+ */
+public class ResponseCacheStore {
+
+    // Map node, record, arrays and header map; a rough figure, small next to any body
+    static final long ENTRY_OVERHEAD_BYTES = 256;
+
+    private final Map<String, CachedResponse> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final int maxEntries;
+    private final long maxBytes;
+    private long bytes;
+
+    public ResponseCacheStore(int maxEntries, long maxBytes) {
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+    }
+
+    public CachedResponse get(String key, long nowNanos) {
+        synchronized (entries) {
+            CachedResponse cached = entries.get(key);
+            if (cached != null && cached.isExpired(nowNanos)) {
+                entries.remove(key);
+                bytes -= weigh(key, cached);
+                return null;
+            }
+            return cached;
+        }
+    }
+
+    public void put(String key, CachedResponse response) {
+        synchronized (entries) {
+            CachedResponse previous = entries.put(key, response);
+            if (previous != null) {
+                bytes -= weigh(key, previous);
+            }
+            bytes += weigh(key, response);
+
+            // Least recently used first; an entry bigger than the whole budget is not kept either
+            Iterator<Map.Entry<String, CachedResponse>> eldest = entries.entrySet().iterator();
+            while ((bytes > maxBytes || entries.size() > maxEntries) && eldest.hasNext()) {
+                Map.Entry<String, CachedResponse> entry = eldest.next();
+                bytes -= weigh(entry.getKey(), entry.getValue());
+                eldest.remove();
+            }
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public long bytes() {
+        synchronized (entries) {
+            return bytes;
+        }
+    }
+
+    static long weigh(String key, CachedResponse response) {
+        long weight = ENTRY_OVERHEAD_BYTES + 2L * key.length() + response.body().length;
+        for (Map.Entry<String, List<String>> header : response.headers().entrySet()) {
+            weight += 2L * header.getKey().length();
+            for (String value : header.getValue()) {
+                weight += 2L * value.length();
+            }
+        }
+        return weight;
+    }
+}
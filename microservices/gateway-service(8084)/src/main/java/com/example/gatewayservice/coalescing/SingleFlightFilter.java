@@ -0,0 +1,175 @@
+package com.example.gatewayservice.coalescing;
+
+import com.example.gatewayservice.cache.CacheKeys;
+import com.example.gatewayservice.cache.CachedResponse;
+import com.example.gatewayservice.cache.ResponseCacheFilter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Collapses identical in-flight GETs (same path, query, Accept, Authorization and
+ * validators) onto one upstream call. The first request leads; later ones wait for its
+ * buffered response, up to {@code gateway.single-flight.max-wait}, and fall back to
+ * their own upstream call if it does not arrive or cannot be shared. Only a 200 is
+ * shared: errors and 304s belong to the request that got them.
+ *
+ * Runs right after the response cache, so only cache misses get here.
+ */
+@Component
+public class SingleFlightFilter implements GlobalFilter, Ordered {
+
+    public static final int ORDER = ResponseCacheFilter.ORDER + 1;
+
+    private final SingleFlightProperties properties;
+    private final List<PathPattern> patterns;
+    private final Map<String, Sinks.One<CachedResponse>> inFlight = new ConcurrentHashMap<>();
+
+    private final Counter leaders;
+    private final Counter collapsed;
+    private final Counter fallbacks;
+
+    public SingleFlightFilter(SingleFlightProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.patterns = properties.getPaths().stream().map(PathPatternParser.defaultInstance::parse).toList();
+        this.leaders = counter(meterRegistry, "leader");
+        this.collapsed = counter(meterRegistry, "collapsed");
+        this.fallbacks = counter(meterRegistry, "fallback");
+        Gauge.builder("gateway.single-flight.in-flight", inFlight, Map::size).register(meterRegistry);
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        if (!properties.isEnabled() || request.getMethod() != HttpMethod.GET || !matches(request)
+                || request.getHeaders().getAccept().contains(MediaType.TEXT_EVENT_STREAM)) {
+            return chain.filter(exchange);
+        }
+
+        String key = key(request);
+        Sinks.One<CachedResponse> sink = Sinks.one();
+        Sinks.One<CachedResponse> leader = inFlight.putIfAbsent(key, sink);
+
+        if (leader != null) {
+            collapsed.increment();
+            // Decided on the shared response itself: writing it completes empty, so an empty
+            // signal after the write must not trigger a second upstream call
+            return leader.asMono()
+                    .timeout(properties.getMaxWait())
+                    .map(Optional::of)
+                    .defaultIfEmpty(Optional.empty())
+                    .onErrorResume(TimeoutException.class, ex -> Mono.just(Optional.empty()))
+                    .flatMap(shared -> shared.isPresent()
+                            ? shared.get().writeTo(exchange.getResponse())
+                            : fallback(exchange, chain));
+        }
+
+        leaders.increment();
+        return chain.filter(exchange.mutate().response(new SharingResponse(exchange, key, sink)).build())
+                .doFinally(signal -> {
+                    // Releases followers when the leader failed or completed without a body
+                    inFlight.remove(key, sink);
+                    sink.tryEmitEmpty();
+                });
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    // A leader's If-None-Match can turn its answer into a 304, so validators are part of the key
+    static String key(ServerHttpRequest request) {
+        HttpHeaders headers = request.getHeaders();
+        return CacheKeys.of(request, false)
+                + "|" + String.join(",", headers.getOrEmpty(HttpHeaders.IF_NONE_MATCH))
+                + "|" + String.join(",", headers.getOrEmpty(HttpHeaders.IF_MODIFIED_SINCE));
+    }
+
+    private boolean matches(ServerHttpRequest request) {
+        for (PathPattern pattern : patterns) {
+            if (pattern.matches(request.getPath().pathWithinApplication())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Mono<Void> fallback(ServerWebExchange exchange, GatewayFilterChain chain) {
+        fallbacks.increment();
+        return chain.filter(exchange);
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("gateway.single-flight.requests")
+                .description("Coalescable GETs by role")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Buffers the leader's body, publishes it to waiting followers and then writes it out.
+     */
+    private class SharingResponse extends ServerHttpResponseDecorator {
+
+        private final String key;
+        private final Sinks.One<CachedResponse> sink;
+
+        SharingResponse(ServerWebExchange exchange, String key, Sinks.One<CachedResponse> sink) {
+            super(exchange.getResponse());
+            this.key = key;
+            this.sink = sink;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            MediaType contentType = getHeaders().getContentType();
+            if (contentType != null && MediaType.TEXT_EVENT_STREAM.isCompatibleWith(contentType)) {
+                inFlight.remove(key, sink);
+                sink.tryEmitEmpty();
+                return super.writeWith(body);
+            }
+            return DataBufferUtils.join(Flux.from(body))
+                    .flatMap(joined -> {
+                        byte[] bytes = new byte[joined.readableByteCount()];
+                        joined.read(bytes);
+                        DataBufferUtils.release(joined);
+
+                        // New arrivals from here on start a fresh upstream call
+                        inFlight.remove(key, sink);
+                        if (getStatusCode() != null && getStatusCode().value() == HttpStatus.OK.value()
+                                && bytes.length <= properties.getMaxBodySize().toBytes()) {
+                            sink.tryEmitValue(CachedResponse.of(getStatusCode(), getHeaders(), bytes, 0));
+                        } else {
+                            sink.tryEmitEmpty();
+                        }
+                        return super.writeWith(Mono.just(bufferFactory().wrap(bytes)));
+                    });
+        }
+    }
+}
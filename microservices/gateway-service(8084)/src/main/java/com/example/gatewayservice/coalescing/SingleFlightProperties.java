@@ -0,0 +1,23 @@
+package com.example.gatewayservice.coalescing;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "gateway.single-flight")
+public class SingleFlightProperties {
+
+    private boolean enabled = true;
+    // Followers waiting longer than this stop waiting and call upstream themselves
+    private Duration maxWait = Duration.ofSeconds(2);
+    // Larger responses are not shared; followers then call upstream themselves
+    private DataSize maxBodySize = DataSize.ofMegabytes(1);
+    private List<String> paths = new ArrayList<>();
+}
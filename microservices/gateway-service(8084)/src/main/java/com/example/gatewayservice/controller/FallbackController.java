@@ -0,0 +1,70 @@
+package com.example.gatewayservice.controller;
+
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ServerWebExchange;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Circuit-breaker fallbacks. Reads that have a harmless "nothing yet" answer get it,
+ * marked with {@code X-Degraded}; everything else fails fast with 503.
+ */
+@RestController
+@RequestMapping("/fallback")
+public class FallbackController {
+
+    private static final Pattern USER_AVERAGE = Pattern.compile(".*/api/reviews/user/([^/]+)/average$");
+    private static final Pattern REVIEW_LIST = Pattern.compile(".*/api/reviews/(user|ride)/[^/]+(/type/[^/]+)?$");
+
+    @RequestMapping("/{service}")
+    public ResponseEntity<Object> fallback(@PathVariable String service, ServerWebExchange exchange) {
+        String path = originalPath(exchange);
+
+        if ("review-service".equals(service) && exchange.getRequest().getMethod() == HttpMethod.GET) {
+            Matcher average = USER_AVERAGE.matcher(path);
+            if (average.matches()) {
+                return degraded(Map.of("userId", average.group(1), "averageRating", 0.0));
+            }
+            if (REVIEW_LIST.matcher(path).matches()) {
+                return degraded(List.of());
+            }
+        }
+        // The batch lookup is a read too, even though its ids travel in a POST body
+        if ("review-service".equals(service) && exchange.getRequest().getMethod() == HttpMethod.POST
+                && path.endsWith("/api/reviews/users/average")) {
+            return degraded(List.of());
+        }
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header("Retry-After", "5")
+                .body(Map.of("error", service + " is temporarily unavailable"));
+    }
+
+    private static ResponseEntity<Object> degraded(Object body) {
+        // no-store keeps the gateway response cache from holding on to the degraded answer
+        return ResponseEntity.ok()
+                .header("X-Degraded", "true")
+                .cacheControl(CacheControl.noStore())
+                .body(body);
+    }
+
+    private static String originalPath(ServerWebExchange exchange) {
+        Set<URI> originalUris = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ORIGINAL_REQUEST_URL_ATTR);
+        if (originalUris != null && !originalUris.isEmpty()) {
+            return originalUris.iterator().next().getPath();
+        }
+        return exchange.getRequest().getPath().value();
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.gatewayservice.loadbalancer;
+
+import com.example.commons.loadbalancer.PeakEwmaResponse;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.ReactiveLoadBalancerClientFilter;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+/**
+ * The load-balancer filter reports completion and errors but not cancellation, which
+ * is how a route's time limiter or a disconnecting client ends a request. This filter
+ * wraps it and releases the chosen instance's in-flight slot when that happens.
+ */
+@Component
+public class LoadBalancerReleaseFilter implements GlobalFilter, Ordered {
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        return chain.filter(exchange).doFinally(signal -> {
+            Object chosen = exchange.getAttributes().get(ServerWebExchangeUtils.GATEWAY_LOADBALANCER_RESPONSE_ATTR);
+            if (signal == SignalType.CANCEL && chosen instanceof PeakEwmaResponse response) {
+                response.cancel();
+            }
+        });
+    }
+
+    @Override
+    public int getOrder() {
+        return ReactiveLoadBalancerClientFilter.LOAD_BALANCER_CLIENT_FILTER_ORDER - 1;
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.gatewayservice.ratelimit;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Data;
+import org.springframework.cloud.gateway.filter.ratelimit.AbstractRateLimiter;
+import org.springframework.cloud.gateway.support.ConfigurationService;
+import org.springframework.scheduling.annotation.Scheduled;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory replacement for the Redis rate limiter, for a single gateway instance.
+ *
+ * Each (route, key) bucket is one AtomicLong holding its GCRA "theoretical arrival
+ * time", updated with compare-and-set; the ConcurrentHashMap holding them is
+ * striped, so requests for different keys never contend. A bucket whose arrival
+ * time has passed is full again, which is what the idle sweep removes. A key may list
+ * several space-separated buckets and the request must fit in all of them.
+ *
+ * Limits come from the route's filter args ({@code local-rate-limiter.*}), then
+ * {@code gateway.rate-limit.routes.<routeId>}, then the defaults.
+ */
+public class LocalRateLimiter extends AbstractRateLimiter<LocalRateLimiter.Config> {
+
+    public static final String CONFIGURATION_PROPERTY_NAME = "local-rate-limiter";
+
+    private final LocalRateLimiterProperties properties;
+    private final ConcurrentHashMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+
+    public LocalRateLimiter(ConfigurationService configurationService, LocalRateLimiterProperties properties,
+                            MeterRegistry meterRegistry) {
+        super(Config.class, CONFIGURATION_PROPERTY_NAME, configurationService);
+        this.properties = properties;
+        Gauge.builder("gateway.rate-limit.keys", buckets, Map::size).register(meterRegistry);
+    }
+
+    @Override
+    public Mono<Response> isAllowed(String routeId, String id) {
+        Config config = resolveConfig(routeId);
+        long refillNanos = Duration.ofSeconds(1).toNanos() / Math.max(1, config.getReplenishRate());
+        long capacity = Math.max(1, config.getBurstCapacity());
+        long toleranceNanos = refillNanos * (capacity - 1);
+
+        long now = System.nanoTime();
+        long remaining = capacity;
+        // The id may name several buckets (client address, verified user); every one must have room
+        for (String key : id.split(" ")) {
+            Decision decision = acquire(routeId + "|" + key, now, refillNanos, toleranceNanos);
+            if (!decision.allowed()) {
+                return Mono.just(new Response(false, headers(config, 0, decision.retryAfterNanos())));
+            }
+            remaining = Math.min(remaining, decision.remaining());
+        }
+        return Mono.just(new Response(true, headers(config, remaining, 0)));
+    }
+
+    private Decision acquire(String key, long now, long refillNanos, long toleranceNanos) {
+        AtomicLong bucket = buckets.get(key);
+        if (bucket == null) {
+            if (buckets.size() >= properties.getMaxKeys()) {
+                evictIdle();
+                if (buckets.size() >= properties.getMaxKeys()) {
+                    // Out of room: refuse new keys instead of growing without bound
+                    return new Decision(false, 0, 0);
+                }
+            }
+            bucket = buckets.computeIfAbsent(key, k -> new AtomicLong(now));
+        }
+
+        while (true) {
+            long current = bucket.get();
+            long arrival = current - now > 0 ? current : now;
+            long excess = arrival - now - toleranceNanos;
+            if (excess > 0) {
+                return new Decision(false, 0, excess);
+            }
+            long next = arrival + refillNanos;
+            if (bucket.compareAndSet(current, next)) {
+                long remaining = (toleranceNanos - (next - now - refillNanos)) / refillNanos;
+                return new Decision(true, Math.max(0, remaining), 0);
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${gateway.rate-limit.eviction-interval:30s}")
+    public void evictIdle() {
+        long now = System.nanoTime();
+        buckets.entrySet().removeIf(e -> e.getValue().get() - now <= 0);
+    }
+
+    private Config resolveConfig(String routeId) {
+        Config config = getConfig().get(routeId);
+        if (config != null) {
+            return config;
+        }
+        Config routeConfig = properties.getRoutes().get(routeId);
+        return routeConfig != null ? routeConfig : properties.getDefaults();
+    }
+
+    private static Map<String, String> headers(Config config, long remaining, long retryAfterNanos) {
+        Map<String, String> headers = new HashMap<>();
+        headers.put("X-RateLimit-Remaining", Long.toString(remaining));
+        headers.put("X-RateLimit-Replenish-Rate", Integer.toString(config.getReplenishRate()));
+        headers.put("X-RateLimit-Burst-Capacity", Integer.toString(config.getBurstCapacity()));
+        if (retryAfterNanos > 0) {
+            long seconds = Math.max(1, (retryAfterNanos + 999_999_999L) / 1_000_000_000L);
+            headers.put("Retry-After", Long.toString(seconds));
+        }
+        return headers;
+    }
+
+    private record Decision(boolean allowed, long remaining, long retryAfterNanos) {
+    }
+
+    @Data
+    public static class Config {
+        // Tokens added per second
+        private int replenishRate = 20;
+        // Requests allowed in a burst
+        private int burstCapacity = 40;
+    }
+}
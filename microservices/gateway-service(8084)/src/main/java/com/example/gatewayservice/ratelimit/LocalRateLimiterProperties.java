@@ -0,0 +1,19 @@
+package com.example.gatewayservice.ratelimit;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "gateway.rate-limit")
+public class LocalRateLimiterProperties {
+
+    private int maxKeys = 200_000;
+    private LocalRateLimiter.Config defaults = new LocalRateLimiter.Config();
+    // Keyed by route id
+    private Map<String, LocalRateLimiter.Config> routes = new HashMap<>();
+}
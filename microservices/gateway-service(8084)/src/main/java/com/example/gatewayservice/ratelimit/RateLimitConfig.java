@@ -0,0 +1,35 @@
+package com.example.gatewayservice.ratelimit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cloud.gateway.filter.ratelimit.KeyResolver;
+import org.springframework.cloud.gateway.support.ConfigurationService;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.net.InetSocketAddress;
+
+@Configuration
+public class RateLimitConfig {
+
+    @Bean
+    public LocalRateLimiter localRateLimiter(ConfigurationService configurationService,
+                                             LocalRateLimiterProperties properties,
+                                             MeterRegistry meterRegistry) {
+        return new LocalRateLimiter(configurationService, properties, meterRegistry);
+    }
+
+    // Every caller is limited per client address; an authenticated principal also gets its own
+    // bucket. The raw Authorization header is never trusted as a key: rotating it would mint
+    // fresh buckets.
+    @Bean
+    public KeyResolver userOrIpKeyResolver() {
+        return exchange -> {
+            InetSocketAddress remote = exchange.getRequest().getRemoteAddress();
+            String ip = "ip:" + (remote != null && remote.getAddress() != null
+                    ? remote.getAddress().getHostAddress() : "unknown");
+            return exchange.getPrincipal()
+                    .map(principal -> ip + " user:" + principal.getName())
+                    .defaultIfEmpty(ip);
+        };
+    }
+}
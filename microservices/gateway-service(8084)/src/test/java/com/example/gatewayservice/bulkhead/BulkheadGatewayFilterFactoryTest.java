@@ -0,0 +1,102 @@
+package com.example.gatewayservice.bulkhead;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BulkheadGatewayFilterFactoryTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private BulkheadGatewayFilterFactory factory;
+    // Upstream calls stay in flight until this completes
+    private final Sinks.Empty<Void> upstream = Sinks.empty();
+    private final GatewayFilterChain chain = exchange -> upstream.asMono();
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        factory = new BulkheadGatewayFilterFactory(meterRegistry);
+    }
+
+    @Test
+    void rejectsOverTheCapAndReleasesOnCompletion() {
+        GatewayFilter filter = factory.apply(config("review-service", 1));
+
+        startRequest(filter);
+        assertThat(send(filter)).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(inUse("review-service")).isEqualTo(1);
+
+        upstream.tryEmitEmpty();
+        assertThat(inUse("review-service")).isZero();
+        assertThat(meterRegistry.get("gateway.bulkhead.rejected").tag("route", "review-service").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void routeRefreshSharesTheCapInsteadOfDoublingIt() {
+        GatewayFilter before = factory.apply(config("review-service", 1));
+        startRequest(before);
+
+        GatewayFilter after = factory.apply(config("review-service", 1));
+
+        assertThat(send(after)).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(inUse("review-service")).isEqualTo(1);
+    }
+
+    @Test
+    void refreshWithANewLimitResizesTheBulkhead() {
+        GatewayFilter before = factory.apply(config("review-service", 1));
+        startRequest(before);
+
+        GatewayFilter after = factory.apply(config("review-service", 2));
+
+        startRequest(after);
+        assertThat(inUse("review-service")).isEqualTo(2);
+        assertThat(send(after)).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    @Test
+    void routesHaveSeparateBulkheads() {
+        startRequest(factory.apply(config("review-service", 1)));
+
+        GatewayFilter other = factory.apply(config("ride-service", 1));
+
+        startRequest(other);
+        assertThat(inUse("ride-service")).isEqualTo(1);
+    }
+
+    private void startRequest(GatewayFilter filter) {
+        filter.filter(exchange(), chain).subscribe();
+    }
+
+    private HttpStatusCode send(GatewayFilter filter) {
+        MockServerWebExchange exchange = exchange();
+        filter.filter(exchange, e -> Mono.empty()).block();
+        return exchange.getResponse().getStatusCode();
+    }
+
+    private double inUse(String routeId) {
+        return meterRegistry.get("gateway.bulkhead.in-use").tag("route", routeId).gauge().value();
+    }
+
+    private static MockServerWebExchange exchange() {
+        return MockServerWebExchange.from(MockServerHttpRequest.get("/review-service/api/reviews"));
+    }
+
+    private static BulkheadGatewayFilterFactory.Config config(String routeId, int maxConcurrent) {
+        BulkheadGatewayFilterFactory.Config config = new BulkheadGatewayFilterFactory.Config();
+        config.setRouteId(routeId);
+        config.setMaxConcurrent(maxConcurrent);
+        return config;
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.gatewayservice.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ResponseCacheFilterTest {
+
+    private static final String RIDE_PATH = "/ride-service/api/rides/r1";
+
+    private final AtomicInteger upstreamCalls = new AtomicInteger();
+    private ResponseCacheFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        ResponseCacheProperties.Rule rule = new ResponseCacheProperties.Rule();
+        rule.setName("ride-details");
+        rule.setPath("/ride-service/api/rides/{rideId}");
+        rule.setTtl(Duration.ofMinutes(1));
+        rule.setShared(true);
+        ResponseCacheProperties properties = new ResponseCacheProperties();
+        properties.setRules(List.of(rule));
+        filter = new ResponseCacheFilter(properties, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void cborResponseIsNotServedToJsonClients() {
+        filter.filter(get("application/cbor"), upstream()).block();
+
+        MockServerWebExchange json = get("application/json");
+        filter.filter(json, upstream()).block();
+
+        assertThat(upstreamCalls).hasValue(2);
+        assertThat(json.getResponse().getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_JSON);
+        assertThat(json.getResponse().getBodyAsString().block()).isEqualTo("{\"id\":\"r1\"}");
+        assertThat(json.getResponse().getHeaders().getVary()).contains(HttpHeaders.ACCEPT);
+    }
+
+    @Test
+    void sameRepresentationIsServedFromCache() {
+        filter.filter(get("application/json"), upstream()).block();
+
+        MockServerWebExchange second = get("application/json");
+        filter.filter(second, upstream()).block();
+
+        assertThat(upstreamCalls).hasValue(1);
+        assertThat(second.getResponse().getHeaders().getFirst("X-Cache")).isEqualTo("HIT");
+        assertThat(second.getResponse().getBodyAsString().block()).isEqualTo("{\"id\":\"r1\"}");
+    }
+
+    @Test
+    void matchingEtagIsAnsweredWithNotModified() {
+        MockServerWebExchange first = get("application/json");
+        filter.filter(first, upstream()).block();
+        String etag = first.getResponse().getHeaders().getETag();
+
+        MockServerWebExchange revalidation = MockServerWebExchange.from(MockServerHttpRequest.get(RIDE_PATH)
+                .header(HttpHeaders.ACCEPT, "application/json")
+                .ifNoneMatch(etag));
+        filter.filter(revalidation, upstream()).block();
+
+        assertThat(upstreamCalls).hasValue(1);
+        assertThat(revalidation.getResponse().getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+    }
+
+    @Test
+    void cacheKeyDependsOnAcceptAndPrivateAuthorization() {
+        MockServerHttpRequest json = MockServerHttpRequest.get(RIDE_PATH)
+                .header(HttpHeaders.ACCEPT, "application/json").build();
+        MockServerHttpRequest cbor = MockServerHttpRequest.get(RIDE_PATH)
+                .header(HttpHeaders.ACCEPT, "application/cbor").build();
+        MockServerHttpRequest alice = MockServerHttpRequest.get(RIDE_PATH)
+                .header(HttpHeaders.AUTHORIZATION, "Bearer alice").build();
+        MockServerHttpRequest bob = MockServerHttpRequest.get(RIDE_PATH)
+                .header(HttpHeaders.AUTHORIZATION, "Bearer bob").build();
+
+        assertThat(CacheKeys.of(json, true)).isNotEqualTo(CacheKeys.of(cbor, true));
+        assertThat(CacheKeys.of(alice, true)).isEqualTo(CacheKeys.of(bob, true));
+        assertThat(CacheKeys.of(alice, false)).isNotEqualTo(CacheKeys.of(bob, false));
+    }
+
+    private static MockServerWebExchange get(String accept) {
+        return MockServerWebExchange.from(MockServerHttpRequest.get(RIDE_PATH).header(HttpHeaders.ACCEPT, accept));
+    }
+
+    // Answers in the representation the client asked for, like the services do
+    private GatewayFilterChain upstream() {
+        return exchange -> {
+            upstreamCalls.incrementAndGet();
+            boolean cbor = exchange.getRequest().getHeaders().getAccept().contains(MediaType.APPLICATION_CBOR);
+            byte[] body = cbor
+                    ? new byte[] {(byte) 0xa1, 0x62, 'i', 'd', 0x62, 'r', '1'}
+                    : "{\"id\":\"r1\"}".getBytes(StandardCharsets.UTF_8);
+            ServerHttpResponse response = exchange.getResponse();
+            response.setStatusCode(HttpStatus.OK);
+            response.getHeaders().setContentType(cbor ? MediaType.APPLICATION_CBOR : MediaType.APPLICATION_JSON);
+            return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
+        };
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.gatewayservice.cache;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ResponseCacheStoreTest {
+
+    private static final long FAR_FUTURE = Long.MAX_VALUE / 2;
+
+    @Test
+    void evictsLeastRecentlyUsedOnceOverTheByteBudget() {
+        long entry = ResponseCacheStore.weigh("a", response(1_000, FAR_FUTURE));
+        ResponseCacheStore store = new ResponseCacheStore(100, entry * 2);
+        store.put("a", response(1_000, FAR_FUTURE));
+        store.put("b", response(1_000, FAR_FUTURE));
+        store.get("a", 0);
+
+        store.put("c", response(1_000, FAR_FUTURE));
+
+        assertThat(store.get("a", 0)).isNotNull();
+        assertThat(store.get("b", 0)).isNull();
+        assertThat(store.get("c", 0)).isNotNull();
+        assertThat(store.bytes()).isEqualTo(entry * 2);
+    }
+
+    @Test
+    void oneLargeResponseDisplacesManySmallOnes() {
+        ResponseCacheStore store = new ResponseCacheStore(100, 20_000);
+        for (int i = 0; i < 10; i++) {
+            store.put("small-" + i, response(1_000, FAR_FUTURE));
+        }
+
+        store.put("large", response(15_000, FAR_FUTURE));
+
+        assertThat(store.size()).isLessThan(11);
+        assertThat(store.bytes()).isLessThanOrEqualTo(20_000);
+        assertThat(store.get("large", 0)).isNotNull();
+    }
+
+    @Test
+    void responseBiggerThanTheBudgetIsNotKept() {
+        ResponseCacheStore store = new ResponseCacheStore(100, 10_000);
+        store.put("a", response(1_000, FAR_FUTURE));
+
+        store.put("huge", response(50_000, FAR_FUTURE));
+
+        assertThat(store.size()).isZero();
+        assertThat(store.bytes()).isZero();
+    }
+
+    @Test
+    void entryCapStillApplies() {
+        ResponseCacheStore store = new ResponseCacheStore(2, Long.MAX_VALUE);
+        store.put("a", response(10, FAR_FUTURE));
+        store.put("b", response(10, FAR_FUTURE));
+        store.put("c", response(10, FAR_FUTURE));
+
+        assertThat(store.size()).isEqualTo(2);
+        assertThat(store.get("a", 0)).isNull();
+    }
+
+    @Test
+    void replacingAndExpiringEntriesKeepTheByteCountExact() {
+        ResponseCacheStore store = new ResponseCacheStore(100, Long.MAX_VALUE);
+        store.put("a", response(1_000, FAR_FUTURE));
+        store.put("a", response(2_000, 100));
+        assertThat(store.bytes()).isEqualTo(ResponseCacheStore.weigh("a", response(2_000, 100)));
+
+        assertThat(store.get("a", 200)).isNull();
+        assertThat(store.bytes()).isZero();
+    }
+
+    private static CachedResponse response(int bodySize, long expiresAtNanos) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.CONTENT_TYPE, "application/json");
+        return CachedResponse.of(HttpStatus.OK, headers, new byte[bodySize], expiresAtNanos);
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.gatewayservice.coalescing;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SingleFlightFilterTest {
+
+    private static final String RIDE_PATH = "/ride-service/api/rides/r1";
+
+    private final AtomicInteger upstreamCalls = new AtomicInteger();
+    // Holds every upstream answer back until both requests are in flight
+    private final Sinks.Empty<Void> release = Sinks.empty();
+    private SingleFlightFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        SingleFlightProperties properties = new SingleFlightProperties();
+        properties.setPaths(List.of("/ride-service/api/rides/**"));
+        filter = new SingleFlightFilter(properties, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void followerSharesTheLeadersResponse() {
+        MockServerWebExchange leader = exchange(MockServerHttpRequest.get(RIDE_PATH));
+        MockServerWebExchange follower = exchange(MockServerHttpRequest.get(RIDE_PATH));
+
+        runConcurrently(leader, follower, upstream(HttpStatus.OK));
+
+        assertThat(upstreamCalls).hasValue(1);
+        assertThat(follower.getResponse().getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(follower.getResponse().getBodyAsString().block()).isEqualTo("call-1");
+    }
+
+    @Test
+    void followerOfAFailedLeaderCallsUpstreamItself() {
+        MockServerWebExchange leader = exchange(MockServerHttpRequest.get(RIDE_PATH));
+        MockServerWebExchange follower = exchange(MockServerHttpRequest.get(RIDE_PATH));
+
+        runConcurrently(leader, follower, upstream(HttpStatus.SERVICE_UNAVAILABLE));
+
+        assertThat(upstreamCalls).hasValue(2);
+        assertThat(leader.getResponse().getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(follower.getResponse().getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(follower.getResponse().getBodyAsString().block()).isEqualTo("call-2");
+    }
+
+    @Test
+    void conditionalRequestDoesNotHandItsNotModifiedToOthers() {
+        MockServerWebExchange leader = exchange(MockServerHttpRequest.get(RIDE_PATH).ifNoneMatch("\"v1\""));
+        MockServerWebExchange follower = exchange(MockServerHttpRequest.get(RIDE_PATH));
+
+        runConcurrently(leader, follower, upstream(HttpStatus.NOT_MODIFIED));
+
+        assertThat(upstreamCalls).hasValue(2);
+        assertThat(leader.getResponse().getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(follower.getResponse().getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(follower.getResponse().getBodyAsString().block()).isEqualTo("call-2");
+    }
+
+    @Test
+    void differentRepresentationsAreNotCollapsed() {
+        MockServerWebExchange json = exchange(MockServerHttpRequest.get(RIDE_PATH)
+                .header(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE));
+        MockServerWebExchange cbor = exchange(MockServerHttpRequest.get(RIDE_PATH)
+                .header(HttpHeaders.ACCEPT, MediaType.APPLICATION_CBOR_VALUE));
+
+        runConcurrently(json, cbor, upstream(HttpStatus.OK));
+
+        assertThat(upstreamCalls).hasValue(2);
+    }
+
+    private void runConcurrently(MockServerWebExchange leader, MockServerWebExchange follower,
+                                 GatewayFilterChain chain) {
+        Mono.when(filter.filter(leader, chain), filter.filter(follower, chain),
+                        Mono.fromRunnable(release::tryEmitEmpty))
+                .block(Duration.ofSeconds(5));
+    }
+
+    private static MockServerWebExchange exchange(MockServerHttpRequest.BaseBuilder<?> request) {
+        return MockServerWebExchange.from(request);
+    }
+
+    // The first call answers with firstStatus, later ones with 200; bodies name the call
+    private GatewayFilterChain upstream(HttpStatus firstStatus) {
+        return exchange -> {
+            int call = upstreamCalls.incrementAndGet();
+            HttpStatus status = call == 1 ? firstStatus : HttpStatus.OK;
+            return release.asMono().then(Mono.defer(() -> {
+                ServerHttpResponse response = exchange.getResponse();
+                response.setStatusCode(status);
+                if (status == HttpStatus.NOT_MODIFIED) {
+                    return response.setComplete();
+                }
+                response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+                byte[] body = ("call-" + call).getBytes(StandardCharsets.UTF_8);
+                return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
+            }));
+        };
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.gatewayservice.ratelimit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.ratelimit.RateLimiter.Response;
+import org.springframework.cloud.gateway.support.ConfigurationService;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class LocalRateLimiterTest {
+
+    private static final String ROUTE = "ride-service";
+
+    private LocalRateLimiterProperties properties;
+    private LocalRateLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        properties = new LocalRateLimiterProperties();
+        // One token per second, so nothing refills while a test runs
+        properties.getDefaults().setReplenishRate(1);
+        properties.getDefaults().setBurstCapacity(5);
+        limiter = new LocalRateLimiter(mock(ConfigurationService.class), properties, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void allowsTheBurstThenRejectsWithRetryAfter() {
+        for (int i = 4; i >= 0; i--) {
+            Response response = allow("ip:10.0.0.1");
+            assertThat(response.isAllowed()).isTrue();
+            assertThat(response.getHeaders()).containsEntry("X-RateLimit-Remaining", Integer.toString(i));
+        }
+
+        Response rejected = allow("ip:10.0.0.1");
+        assertThat(rejected.isAllowed()).isFalse();
+        assertThat(rejected.getHeaders()).containsEntry("Retry-After", "1");
+    }
+
+    @Test
+    void keysHaveSeparateBuckets() {
+        drain("ip:10.0.0.1");
+
+        assertThat(allow("ip:10.0.0.1").isAllowed()).isFalse();
+        assertThat(allow("ip:10.0.0.2").isAllowed()).isTrue();
+    }
+
+    @Test
+    void compositeKeyMustFitEveryBucket() {
+        drain("ip:10.0.0.1");
+
+        // A verified user does not get around an exhausted address bucket
+        assertThat(allow("ip:10.0.0.1 user:alice").isAllowed()).isFalse();
+        // and the user bucket still limits a user who moves between addresses
+        drain("ip:10.0.0.2 user:bob");
+        assertThat(allow("ip:10.0.0.3 user:bob").isAllowed()).isFalse();
+        assertThat(allow("ip:10.0.0.3 user:carol").isAllowed()).isTrue();
+    }
+
+    @Test
+    void refusesNewKeysWhenFullOfActiveBuckets() {
+        properties.setMaxKeys(2);
+        allow("ip:10.0.0.1");
+        allow("ip:10.0.0.2");
+
+        assertThat(allow("ip:10.0.0.3").isAllowed()).isFalse();
+        assertThat(allow("ip:10.0.0.1").isAllowed()).isTrue();
+    }
+
+    @Test
+    void concurrentCallersNeverExceedTheBurst() throws InterruptedException {
+        properties.getDefaults().setBurstCapacity(100);
+        int threads = 16;
+        int callsPerThread = 5_000;
+        AtomicInteger allowed = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+
+        long began = System.nanoTime();
+        for (int t = 0; t < threads; t++) {
+            pool.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < callsPerThread; i++) {
+                    if (allow("ip:10.0.0.1").isAllowed()) {
+                        allowed.incrementAndGet();
+                    }
+                }
+            });
+        }
+        start.countDown();
+        pool.shutdown();
+        assertThat(pool.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+        long elapsedNanos = System.nanoTime() - began;
+
+        // Burst plus at most one refill per elapsed second
+        long ceiling = 100 + TimeUnit.NANOSECONDS.toSeconds(elapsedNanos) + 1;
+        assertThat(allowed.get()).isBetween(100, (int) ceiling);
+        // Contention on one hot key must not serialize callers: 80k decisions take about 0.3 s
+        // on a single core, so falling under 16k/s means the hot path has started blocking
+        long decisionsPerSecond = threads * callsPerThread * TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+        assertThat(decisionsPerSecond).isGreaterThan(16_000);
+    }
+
+    private Response allow(String id) {
+        return limiter.isAllowed(ROUTE, id).block();
+    }
+
+    private void drain(String id) {
+        for (int i = 0; i < 5; i++) {
+            assertThat(allow(id).isAllowed()).isTrue();
+        }
+    }
+}
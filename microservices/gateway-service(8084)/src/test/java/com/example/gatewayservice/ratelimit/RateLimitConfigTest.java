@@ -0,0 +1,47 @@
+package com.example.gatewayservice.ratelimit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.ratelimit.KeyResolver;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.security.Principal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateLimitConfigTest {
+
+    private final KeyResolver resolver = new RateLimitConfig().userOrIpKeyResolver();
+
+    @Test
+    void unverifiedAuthorizationHeaderDoesNotChangeTheKey() {
+        String first = resolve(request("Bearer one"));
+        String second = resolve(request("Bearer two"));
+
+        assertThat(first).isEqualTo("ip:10.0.0.1").isEqualTo(second);
+    }
+
+    @Test
+    void authenticatedPrincipalAddsAUserBucket() {
+        Principal alice = () -> "alice";
+        ServerWebExchange exchange = request("Bearer one").mutate().principal(Mono.just(alice)).build();
+
+        String key = resolver.resolve(exchange).block();
+
+        assertThat(key).isEqualTo("ip:10.0.0.1 user:alice");
+    }
+
+    private String resolve(ServerWebExchange exchange) {
+        return resolver.resolve(exchange).block();
+    }
+
+    private static MockServerWebExchange request(String authorization) {
+        return MockServerWebExchange.from(MockServerHttpRequest.get("/ride-service/api/rides")
+                .remoteAddress(new InetSocketAddress("10.0.0.1", 40000))
+                .header(HttpHeaders.AUTHORIZATION, authorization));
+    }
+}
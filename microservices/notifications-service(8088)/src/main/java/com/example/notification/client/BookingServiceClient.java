@@ -0,0 +1,34 @@
+package com.example.notification.client;
+
+import com.example.commons.http.ServiceHttpClient;
+import com.example.notification.dto.BookingSummary;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+@Component
+@RequiredArgsConstructor
+public class BookingServiceClient {
+
+    private static final String RIDE_BOOKINGS_URL = "http://booking-service/api/bookings/ride/{rideId}";
+    private static final Set<String> INACTIVE_STATUSES = Set.of("CANCELLED", "REJECTED");
+
+    private final ServiceHttpClient httpClient;
+
+    public List<String> getRidePassengers(String rideId) {
+        BookingSummary[] bookings = httpClient.get(RIDE_BOOKINGS_URL, BookingSummary[].class, rideId);
+        if (bookings == null) {
+            return List.of();
+        }
+        return Arrays.stream(bookings)
+                .filter(booking -> !INACTIVE_STATUSES.contains(booking.status()))
+                .map(BookingSummary::passengerId)
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+    }
+}
@@ -1,12 +1,23 @@
 package com.example.notification.controllers;
 
+import com.example.notification.dto.DomainEvent;
+import com.example.notification.dto.FanOutRequest;
+import com.example.notification.dto.NotificationPage;
 import com.example.notification.entities.Notification;
+import com.example.notification.entities.NotificationPreference;
 import com.example.notification.enums.Status;
+import com.example.notification.services.DomainEventHandler;
 import com.example.notification.services.NotificationService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequiredArgsConstructor
@@ -14,19 +25,82 @@ import java.util.List;
 public class NotificationController {
 
     private final NotificationService notificationService;
+    private final DomainEventHandler domainEventHandler;
 
     @PostMapping
     public Notification create(@RequestBody Notification notification) {
         return notificationService.createNotification(notification);
     }
 
-    @GetMapping("/{userId}")
-    public List<Notification> getAll(@PathVariable String userId) {
-        return notificationService.getUserNotifications(userId);
+    @PostMapping("/fan-out")
+    public ResponseEntity<?> fanOut(@RequestBody FanOutRequest request) {
+        try {
+            return ResponseEntity.ok(notificationService.fanOut(request));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (RestClientException e) {
+            return ResponseEntity.status(HttpStatus.BAD_GATEWAY)
+                    .body(Map.of("error", "Could not resolve ride passengers: " + e.getMessage()));
+        }
+    }
+
+    @PostMapping("/events")
+    public Map<String, Object> receiveEvents(@RequestBody List<DomainEvent> events) {
+        return Map.of("received", events.size(), "handled", domainEventHandler.handle(events));
+    }
+
+    // Newest first; follow nextCursor for older notifications
+    @GetMapping({"/{userId}", "/{userId}/page"})
+    public ResponseEntity<?> getPage(@PathVariable String userId,
+                                     @RequestParam(required = false) Status status,
+                                     @RequestParam(required = false) String cursor,
+                                     @RequestParam(defaultValue = "20") int limit) {
+        try {
+            NotificationPage page = notificationService.getNotificationPage(userId, status, cursor, limit);
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @GetMapping(value = "/{userId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(@PathVariable String userId,
+                             @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return notificationService.subscribe(userId, lastEventId);
     }
 
     @PutMapping("/{id}/status")
     public Notification updateStatus(@PathVariable String id, @RequestParam Status status) {
         return notificationService.changeStatus(id, status);
     }
+
+    @GetMapping("/{userId}/unread-count")
+    public Map<String, Object> getUnreadCount(@PathVariable String userId) {
+        return Map.of("userId", userId, "unreadCount", notificationService.getUnreadCount(userId));
+    }
+
+    @PutMapping("/{userId}/read-all")
+    public Map<String, Object> markAllRead(@PathVariable String userId) {
+        return Map.of("userId", userId, "updated", notificationService.markAllRead(userId));
+    }
+
+    @PostMapping("/unread-counts/rebuild")
+    public Map<String, Object> rebuildUnreadCounters() {
+        return Map.of("status", "success", "users", notificationService.rebuildUnreadCounters());
+    }
+
+    @GetMapping("/{userId}/preferences")
+    public NotificationPreference getPreferences(@PathVariable String userId) {
+        return notificationService.getPreference(userId);
+    }
+
+    @PutMapping("/{userId}/preferences")
+    public ResponseEntity<?> updatePreferences(@PathVariable String userId,
+                                               @RequestBody NotificationPreference preference) {
+        try {
+            return ResponseEntity.ok(notificationService.updatePreference(userId, preference.getCoalesceWindowSeconds()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
 }
@@ -0,0 +1,7 @@
+package com.example.notification.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record BookingSummary(String id, String passengerId, String status) {
+}
@@ -0,0 +1,13 @@
+package com.example.notification.dto;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+public record DomainEvent(
+        String aggregateType,
+        String aggregateId,
+        String eventId,
+        String type,
+        LocalDateTime occurredAt,
+        Map<String, Object> payload
+) {}
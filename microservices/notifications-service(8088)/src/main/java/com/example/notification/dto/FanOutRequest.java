@@ -0,0 +1,12 @@
+package com.example.notification.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class FanOutRequest {
+    private String message;
+    private List<String> userIds;
+    private String rideId;
+}
@@ -0,0 +1,10 @@
+package com.example.notification.dto;
+
+import com.example.notification.entities.Notification;
+
+import java.util.List;
+
+public record NotificationPage(
+        List<Notification> items,
+        String nextCursor
+) {}
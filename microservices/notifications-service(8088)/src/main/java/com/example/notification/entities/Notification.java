@@ -5,17 +5,28 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.Document;
 
+import java.time.LocalDateTime;
+
 
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
 @Document(collection = "notifications")
+@CompoundIndex(name = "user_status_created", def = "{'userId': 1, 'status': 1, 'createdAt': -1, '_id': -1}")
+@CompoundIndex(name = "user_created", def = "{'userId': 1, 'createdAt': -1, '_id': -1}")
 public class Notification {
     @Id
     private String id;
     String userId;
     String message;
     Status status;
+    // Optional grouping key; notifications of the same kind may be coalesced into one document
+    String kind;
+    int count = 1;
+    LocalDateTime createdAt;
+    // Set when marked READ; the retention TTL index expires documents from this point
+    LocalDateTime readAt;
 }
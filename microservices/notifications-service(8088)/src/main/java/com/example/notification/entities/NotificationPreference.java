@@ -0,0 +1,18 @@
+package com.example.notification.entities;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Document(collection = "notification_preferences")
+public class NotificationPreference {
+    @Id
+    private String userId;
+    // Notifications of the same kind arriving within this window are merged; 0 delivers each one
+    private long coalesceWindowSeconds;
+}
@@ -0,0 +1,22 @@
+package com.example.notification.entities;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+// Dedupe marker for relayed domain events; kept well beyond any realistic redelivery window
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Document(collection = "processed_events")
+public class ProcessedEvent {
+    @Id
+    private String id;
+    @Indexed(expireAfter = "7d")
+    private LocalDateTime processedAt;
+}
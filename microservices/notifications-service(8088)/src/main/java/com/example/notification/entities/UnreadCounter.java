@@ -0,0 +1,19 @@
+package com.example.notification.entities;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Document(collection = "unread_counters")
+public class UnreadCounter {
+    @Id
+    private String userId;
+    private long count;
+    // Set by the last rebuild that found unread notifications for this user
+    private String rebuildId;
+}
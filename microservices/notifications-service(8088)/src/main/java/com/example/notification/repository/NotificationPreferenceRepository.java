@@ -0,0 +1,7 @@
+package com.example.notification.repository;
+
+import com.example.notification.entities.NotificationPreference;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+public interface NotificationPreferenceRepository extends MongoRepository<NotificationPreference, String> {
+}
@@ -6,5 +6,5 @@ import org.springframework.data.mongodb.repository.MongoRepository;
 import java.util.List;
 
 public interface NotificationRepository extends MongoRepository<Notification, String> {
-    List<Notification> findByUserId(String userId);
+    List<Notification> findTop500ByUserIdAndIdGreaterThanOrderByIdAsc(String userId, String id);
 }
@@ -0,0 +1,85 @@
+package com.example.notification.services;
+
+import com.example.notification.dto.DomainEvent;
+import com.example.notification.dto.FanOutRequest;
+import com.example.notification.entities.Notification;
+import com.example.notification.entities.ProcessedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Turns domain events relayed from other services' outboxes into notifications.
+ * Relays deliver at least once, so each event is marked as processed once handled
+ * and skipped when it arrives again.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DomainEventHandler {
+
+    private final NotificationService notificationService;
+    private final MongoTemplate mongoTemplate;
+
+    public int handle(List<DomainEvent> events) {
+        int handled = 0;
+        // Sequential on purpose: relays send each aggregate's events in order
+        for (DomainEvent event : events) {
+            String key = event.aggregateType() + ":" + event.aggregateId() + ":" + event.eventId();
+            if (mongoTemplate.findById(key, ProcessedEvent.class) != null) {
+                continue;
+            }
+            apply(event);
+            try {
+                mongoTemplate.insert(new ProcessedEvent(key, LocalDateTime.now()));
+            } catch (DuplicateKeyException ex) {
+                // Handled concurrently by another delivery of the same batch
+            }
+            handled++;
+        }
+        return handled;
+    }
+
+    private void apply(DomainEvent event) {
+        Map<String, Object> payload = event.payload() != null ? event.payload() : Map.of();
+        switch (event.type()) {
+            case "BookingAccepted" -> notify(payload.get("passengerId"), "booking-status",
+                    "Your booking for ride " + payload.get("rideId") + " was accepted");
+            case "BookingRejected" -> notify(payload.get("passengerId"), "booking-status",
+                    "Your booking for ride " + payload.get("rideId") + " was rejected");
+            case "RideCancelled" -> notifyRidePassengers(event.aggregateId(), payload);
+            case "ReportResolved", "ReportDismissed" -> notify(payload.get("reporterId"), "report-status",
+                    "Your report was " + ("ReportResolved".equals(event.type()) ? "resolved" : "dismissed"));
+            default -> log.debug("No notification for {} event {}", event.type(), event.eventId());
+        }
+    }
+
+    private void notify(Object userId, String kind, String message) {
+        if (userId == null) {
+            return;
+        }
+        Notification notification = new Notification();
+        notification.setUserId(userId.toString());
+        notification.setKind(kind);
+        notification.setMessage(message);
+        notificationService.createNotification(notification);
+    }
+
+    private void notifyRidePassengers(String rideId, Map<String, Object> payload) {
+        FanOutRequest request = new FanOutRequest();
+        request.setRideId(rideId);
+        request.setMessage("Your ride from " + payload.get("departureCity") + " to " + payload.get("destinationCity")
+                + " on " + payload.get("departureDate") + " was cancelled");
+        try {
+            notificationService.fanOut(request);
+        } catch (IllegalArgumentException ex) {
+            // No active bookings, nobody to tell
+        }
+    }
+}
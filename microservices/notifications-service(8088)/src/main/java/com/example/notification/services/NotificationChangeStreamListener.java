@@ -0,0 +1,64 @@
+package com.example.notification.services;
+
+import com.example.notification.entities.Notification;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.OperationType;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.messaging.ChangeStreamRequest;
+import org.springframework.data.mongodb.core.messaging.DefaultMessageListenerContainer;
+import org.springframework.data.mongodb.core.messaging.MessageListener;
+import org.springframework.data.mongodb.core.messaging.MessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.match;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.newAggregation;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Shares newly inserted notifications between instances: every instance tails the
+ * collection's change stream and delivers inserts to its own subscribers.
+ * Requires MongoDB to run as a replica set.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "notifications.change-streams.enabled", havingValue = "true")
+public class NotificationChangeStreamListener implements SmartLifecycle {
+
+    private final MongoTemplate mongoTemplate;
+    private final NotificationHub notificationHub;
+
+    private MessageListenerContainer container;
+
+    @Override
+    public void start() {
+        container = new DefaultMessageListenerContainer(mongoTemplate);
+        MessageListener<ChangeStreamDocument<Document>, Notification> listener = message -> {
+            Notification notification = message.getBody();
+            if (notification != null) {
+                notificationHub.deliver(notification);
+            }
+        };
+        ChangeStreamRequest<Notification> request = ChangeStreamRequest.builder(listener)
+                .collection(mongoTemplate.getCollectionName(Notification.class))
+                .filter(newAggregation(match(where("operationType").is(OperationType.INSERT.getValue()))))
+                .build();
+        container.register(request, Notification.class);
+        container.start();
+    }
+
+    @Override
+    public void stop() {
+        if (container != null) {
+            container.stop();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return container != null && container.isRunning();
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.notification.services;
+
+import com.example.notification.entities.Notification;
+import com.example.notification.entities.NotificationPreference;
+import com.example.notification.enums.Status;
+import com.example.notification.repository.NotificationPreferenceRepository;
+import jakarta.annotation.PreDestroy;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Merges notifications of the same kind for users who opted into a coalescing
+ * window. Each (user, kind) pair accumulates in memory until its window closes or it
+ * reaches the size cap, and is then written once as a single notification carrying
+ * the latest message and the number of events it stands for, so a window costs one
+ * write however many events it absorbed.
+ *
+ * A flushed notification is never written again: the next event opens a new window
+ * under a new id, so one the user already read stays read. Pending windows are
+ * flushed on shutdown; a crash loses them. Each instance keeps its own windows, so a
+ * user's events spread over several instances may yield one notification per instance.
+ */
+@Component
+public class NotificationCoalescer {
+
+    static final long MAX_WINDOW_SECONDS = 3600;
+    private static final long PREFERENCE_CACHE_MILLIS = 60_000;
+
+    private final NotificationWriter notificationWriter;
+    private final NotificationPreferenceRepository preferenceRepository;
+    private final int maxBatch;
+
+    private final Map<String, CachedWindow> windows = new ConcurrentHashMap<>();
+    private final Map<String, Pending> pending = new ConcurrentHashMap<>();
+
+    public NotificationCoalescer(NotificationWriter notificationWriter,
+                                 NotificationPreferenceRepository preferenceRepository,
+                                 @Value("${notifications.coalescing.max-batch:50}") int maxBatch) {
+        this.notificationWriter = notificationWriter;
+        this.preferenceRepository = preferenceRepository;
+        this.maxBatch = maxBatch;
+    }
+
+    /**
+     * Returns the merged notification the event was added to, or null when the
+     * user has no coalescing window and it should be stored on its own.
+     */
+    public Notification offer(Notification notification) {
+        if (notification.getKind() == null || notification.getKind().isBlank()) {
+            return null;
+        }
+        Duration window = windowFor(notification.getUserId());
+        if (window.isZero()) {
+            return null;
+        }
+
+        String key = notification.getUserId() + "|" + notification.getKind();
+        Pending merged = pending.compute(key, (k, current) -> current == null
+                ? Pending.open(notification, window)
+                : current.add(notification.getMessage()));
+
+        if (merged.count() >= maxBatch && pending.remove(key, merged)) {
+            flush(merged);
+        }
+        return merged.toNotification();
+    }
+
+    public void updateWindow(String userId, Duration window) {
+        windows.put(userId, new CachedWindow(window, System.currentTimeMillis() + PREFERENCE_CACHE_MILLIS));
+    }
+
+    @Scheduled(fixedDelayString = "${notifications.coalescing.flush-interval:1s}")
+    public void flushDue() {
+        LocalDateTime now = LocalDateTime.now();
+        pending.forEach((key, window) -> {
+            // remove(key, value) fails if an event was merged meanwhile; it is flushed next time
+            if (!window.flushAt().isAfter(now) && pending.remove(key, window)) {
+                flush(window);
+            }
+        });
+    }
+
+    @PreDestroy
+    public void flushAll() {
+        pending.forEach((key, window) -> {
+            if (pending.remove(key, window)) {
+                flush(window);
+            }
+        });
+    }
+
+    private void flush(Pending window) {
+        notificationWriter.upsertMerged(window.toNotification());
+    }
+
+    private Duration windowFor(String userId) {
+        CachedWindow cached = windows.get(userId);
+        if (cached != null && cached.expiresAt > System.currentTimeMillis()) {
+            return cached.window;
+        }
+        Duration window = preferenceRepository.findById(userId)
+                .map(NotificationPreference::getCoalesceWindowSeconds)
+                .map(seconds -> Duration.ofSeconds(Math.min(Math.max(seconds, 0), MAX_WINDOW_SECONDS)))
+                .orElse(Duration.ZERO);
+        updateWindow(userId, window);
+        return window;
+    }
+
+    private record CachedWindow(Duration window, long expiresAt) {
+    }
+
+    private record Pending(String notificationId, String userId, String kind, String message, int count,
+                           LocalDateTime createdAt, LocalDateTime flushAt) {
+
+        static Pending open(Notification notification, Duration window) {
+            LocalDateTime now = LocalDateTime.now();
+            return new Pending(new ObjectId().toHexString(), notification.getUserId(), notification.getKind(),
+                    notification.getMessage(), 1, now, now.plus(window));
+        }
+
+        Pending add(String latestMessage) {
+            return new Pending(notificationId, userId, kind, latestMessage, count + 1, createdAt, flushAt);
+        }
+
+        Notification toNotification() {
+            return new Notification(notificationId, userId, message, Status.UNREAD, kind, count, createdAt, null);
+        }
+    }
+}
@@ -0,0 +1,245 @@
+package com.example.notification.services;
+
+import com.example.notification.entities.Notification;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * In-memory registry of SSE subscribers per user. Emitters are servlet async
+ * requests, so an idle subscriber holds a socket but no thread.
+ *
+ * Publishing never writes to a socket: events go into a bounded queue per
+ * subscriber, drained by a small shared sender pool. A subscriber whose queue
+ * overflows, or whose write has been stuck past {@code notifications.sse.send-timeout},
+ * is dropped; its client reconnects with Last-Event-ID and replays what it missed.
+ */
+@Slf4j
+@Component
+public class NotificationHub {
+
+    private final Map<String, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final Duration emitterTimeout;
+    private final boolean changeStreamsEnabled;
+    private final int queueCapacity;
+    private final long sendTimeoutNanos;
+    private final ExecutorService sender;
+
+    public NotificationHub(@Value("${notifications.sse.timeout:30m}") Duration emitterTimeout,
+                           @Value("${notifications.change-streams.enabled:false}") boolean changeStreamsEnabled,
+                           @Value("${notifications.sse.queue-capacity:100}") int queueCapacity,
+                           @Value("${notifications.sse.send-timeout:10s}") Duration sendTimeout,
+                           @Value("${notifications.sse.send-threads:8}") int sendThreads) {
+        this.emitterTimeout = emitterTimeout;
+        this.changeStreamsEnabled = changeStreamsEnabled;
+        this.queueCapacity = queueCapacity;
+        this.sendTimeoutNanos = sendTimeout.toNanos();
+        AtomicInteger threadCount = new AtomicInteger();
+        this.sender = Executors.newFixedThreadPool(sendThreads, runnable -> {
+            Thread thread = new Thread(runnable, "sse-send-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public SseEmitter subscribe(String userId, Supplier<List<Notification>> missed) {
+        return subscribe(userId, missed, new SseEmitter(emitterTimeout.toMillis()));
+    }
+
+    SseEmitter subscribe(String userId, Supplier<List<Notification>> missed, SseEmitter emitter) {
+        Subscriber subscriber = new Subscriber(userId, emitter);
+        subscribers.computeIfAbsent(userId, k -> ConcurrentHashMap.newKeySet()).add(subscriber);
+
+        Runnable remove = () -> unsubscribe(subscriber);
+        emitter.onCompletion(remove);
+        emitter.onTimeout(remove);
+        emitter.onError(ex -> remove.run());
+
+        // Registered before replaying, so nothing published meanwhile is lost; clients dedupe by event id.
+        // The replay is bounded by its query and does not count against the live backlog.
+        missed.get().forEach(notification -> subscriber.replay(() -> event(notification)));
+        return emitter;
+    }
+
+    /**
+     * Called after a notification is stored. With change streams enabled every
+     * instance (including this one) delivers from the stream instead.
+     */
+    public void onCreated(Notification notification) {
+        if (!changeStreamsEnabled) {
+            deliver(notification);
+        }
+    }
+
+    public void deliver(Notification notification) {
+        Set<Subscriber> emitters = subscribers.get(notification.getUserId());
+        if (emitters == null) {
+            return;
+        }
+        for (Subscriber subscriber : emitters) {
+            subscriber.offer(() -> event(notification));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${notifications.sse.heartbeat-interval:25s}")
+    public void heartbeat() {
+        long now = System.nanoTime();
+        subscribers.forEach((userId, emitters) -> {
+            for (Subscriber subscriber : emitters) {
+                if (subscriber.stuck(now)) {
+                    subscriber.close("send stuck for more than " + Duration.ofNanos(sendTimeoutNanos));
+                } else {
+                    subscriber.offer(() -> SseEmitter.event().comment("keep-alive"));
+                }
+            }
+        });
+    }
+
+    int subscriberCount(String userId) {
+        Set<Subscriber> emitters = subscribers.get(userId);
+        return emitters == null ? 0 : emitters.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sender.shutdownNow();
+    }
+
+    private static SseEmitter.SseEventBuilder event(Notification notification) {
+        return SseEmitter.event()
+                .id(notification.getId())
+                .name("notification")
+                .data(notification);
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        subscribers.computeIfPresent(subscriber.userId, (k, emitters) -> {
+            emitters.remove(subscriber);
+            return emitters.isEmpty() ? null : emitters;
+        });
+    }
+
+    private final class Subscriber {
+        private final String userId;
+        private final SseEmitter emitter;
+        // Linked nodes exist only while events wait, so an idle subscriber carries an empty queue
+        private final Queue<Pending> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger backlog = new AtomicInteger();
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile long sendStartedAt;
+        private volatile boolean closed;
+
+        private Subscriber(String userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+        }
+
+        private boolean offer(Supplier<SseEmitter.SseEventBuilder> event) {
+            if (closed) {
+                return false;
+            }
+            if (backlog.incrementAndGet() > queueCapacity) {
+                backlog.decrementAndGet();
+                close("more than " + queueCapacity + " events behind");
+                return false;
+            }
+            queue.offer(new Pending(event, true));
+            schedule();
+            return true;
+        }
+
+        private void replay(Supplier<SseEmitter.SseEventBuilder> event) {
+            if (!closed) {
+                queue.offer(new Pending(event, false));
+                schedule();
+            }
+        }
+
+        private boolean stuck(long now) {
+            long started = sendStartedAt;
+            return started != 0 && now - started > sendTimeoutNanos;
+        }
+
+        // Stops taking events; the emitter is completed by the sender, never by the publishing thread
+        private void close(String reason) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            clear();
+            unsubscribe(this);
+            log.debug("Dropping SSE subscriber of {}: {}", userId, reason);
+            schedule();
+        }
+
+        private void schedule() {
+            if (draining.compareAndSet(false, true)) {
+                try {
+                    sender.execute(this::drain);
+                } catch (RejectedExecutionException ex) {
+                    draining.set(false);
+                }
+            }
+        }
+
+        private void drain() {
+            try {
+                Pending pending;
+                while (!closed && (pending = queue.poll()) != null) {
+                    if (pending.counted()) {
+                        backlog.decrementAndGet();
+                    }
+                    sendStartedAt = System.nanoTime();
+                    try {
+                        emitter.send(pending.event().get());
+                    } catch (IOException | IllegalStateException ex) {
+                        closed = true;
+                        unsubscribe(this);
+                    } finally {
+                        sendStartedAt = 0;
+                    }
+                }
+                if (closed) {
+                    clear();
+                    try {
+                        emitter.complete();
+                    } catch (RuntimeException ignored) {
+                        // already completed or failed
+                    }
+                }
+            } finally {
+                draining.set(false);
+            }
+            if (!closed && !queue.isEmpty()) {
+                schedule();
+            }
+        }
+
+        private void clear() {
+            queue.clear();
+            backlog.set(0);
+        }
+    }
+
+    // Builders are single-use, so each queued event builds its own; counted events are live ones
+    private record Pending(Supplier<SseEmitter.SseEventBuilder> event, boolean counted) {
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.notification.services;
+
+import com.example.notification.entities.Notification;
+import com.example.notification.enums.Status;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.aggregation.ConvertOperators;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.PartialIndexFilter;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Keeps the READ-notification TTL index in line with
+ * {@code notifications.retention.read-ttl}. MongoDB cannot change an index's
+ * options in place, so a changed TTL drops and recreates it; zero removes it.
+ */
+@Slf4j
+@Component
+public class NotificationRetention {
+
+    static final String READ_TTL_INDEX = "read_ttl";
+
+    private final MongoTemplate mongoTemplate;
+    private final Duration readTtl;
+
+    public NotificationRetention(MongoTemplate mongoTemplate,
+                                 @Value("${notifications.retention.read-ttl:30d}") Duration readTtl) {
+        this.mongoTemplate = mongoTemplate;
+        this.readTtl = readTtl;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void apply() {
+        backfillCreatedAt();
+
+        IndexOperations indexOps = mongoTemplate.indexOps(Notification.class);
+        Optional<IndexInfo> existing = indexOps.getIndexInfo().stream()
+                .filter(info -> READ_TTL_INDEX.equals(info.getName()))
+                .findFirst();
+
+        boolean enabled = !readTtl.isZero() && !readTtl.isNegative();
+        if (existing.isPresent()) {
+            if (enabled && existing.get().getExpireAfter().filter(readTtl::equals).isPresent()) {
+                return;
+            }
+            indexOps.dropIndex(READ_TTL_INDEX);
+        }
+        if (!enabled) {
+            return;
+        }
+
+        indexOps.ensureIndex(new Index()
+                .on("readAt", Sort.Direction.ASC)
+                .named(READ_TTL_INDEX)
+                .expire(readTtl)
+                .partial(PartialIndexFilter.of(Criteria.where("status").is(Status.READ.name()))));
+        log.info("Read notifications expire {} after being read", readTtl);
+    }
+
+    // Notifications stored before timestamps existed take their creation time from the ObjectId
+    private void backfillCreatedAt() {
+        long updated = mongoTemplate.updateMulti(
+                Query.query(Criteria.where("createdAt").exists(false)),
+                AggregationUpdate.update().set("createdAt").toValue(ConvertOperators.ToDate.toDate("$_id")),
+                Notification.class).getModifiedCount();
+        if (updated > 0) {
+            log.info("Backfilled createdAt on {} notifications", updated);
+        }
+    }
+}
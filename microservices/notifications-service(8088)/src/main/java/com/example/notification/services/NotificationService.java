@@ -1,31 +1,258 @@
 package com.example.notification.services;
 
+import com.example.notification.client.BookingServiceClient;
+import com.example.notification.dto.FanOutRequest;
+import com.example.notification.dto.NotificationPage;
 import com.example.notification.entities.Notification;
+import com.example.notification.entities.NotificationPreference;
+import com.example.notification.entities.UnreadCounter;
 import com.example.notification.enums.Status;
+import com.example.notification.repository.NotificationPreferenceRepository;
 import com.example.notification.repository.NotificationRepository;
+import com.mongodb.client.result.UpdateResult;
 import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
 public class NotificationService {
 
+    private static final int MAX_RECIPIENTS = 10_000;
+    private static final int INSERT_BATCH_SIZE = 500;
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final NotificationRepository notificationRepository;
+    private final NotificationHub notificationHub;
+    private final MongoTemplate mongoTemplate;
+    private final BookingServiceClient bookingServiceClient;
+    private final NotificationWriter notificationWriter;
+    private final NotificationCoalescer notificationCoalescer;
+    private final NotificationPreferenceRepository preferenceRepository;
 
     public Notification createNotification(Notification notification) {
         notification.setStatus(Status.UNREAD);
-        return notificationRepository.save(notification);
+        notification.setCount(1);
+        Notification merged = notificationCoalescer.offer(notification);
+        if (merged != null) {
+            return merged;
+        }
+
+        notification.setCreatedAt(LocalDateTime.now());
+        notification.setReadAt(null);
+        Notification saved = notificationRepository.save(notification);
+        adjustUnread(saved.getUserId(), 1);
+        notificationHub.onCreated(saved);
+        return saved;
+    }
+
+    public Map<String, Object> fanOut(FanOutRequest request) {
+        if (request.getMessage() == null || request.getMessage().isBlank()) {
+            throw new IllegalArgumentException("message is required");
+        }
+
+        Set<String> recipients = new LinkedHashSet<>();
+        if (request.getUserIds() != null) {
+            request.getUserIds().stream().filter(id -> id != null && !id.isBlank()).forEach(recipients::add);
+        }
+        if (request.getRideId() != null && !request.getRideId().isBlank()) {
+            recipients.addAll(bookingServiceClient.getRidePassengers(request.getRideId()));
+        }
+        if (recipients.isEmpty()) {
+            throw new IllegalArgumentException("No recipients: provide userIds or a rideId with active bookings");
+        }
+        if (recipients.size() > MAX_RECIPIENTS) {
+            throw new IllegalArgumentException("Cannot notify more than " + MAX_RECIPIENTS + " users at once");
+        }
+
+        List<String> userIds = new ArrayList<>(recipients);
+        int created = 0;
+        for (int from = 0; from < userIds.size(); from += INSERT_BATCH_SIZE) {
+            List<String> batch = userIds.subList(from, Math.min(from + INSERT_BATCH_SIZE, userIds.size()));
+            created += insertBatch(batch, request.getMessage());
+        }
+        return Map.of("recipients", userIds.size(), "created", created);
+    }
+
+    private int insertBatch(List<String> userIds, String message) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Notification> notifications = new ArrayList<>(userIds.size());
+        for (String userId : userIds) {
+            // Ids are assigned here so live subscribers get the same ids that were stored
+            notifications.add(new Notification(new ObjectId().toHexString(), userId, message,
+                    Status.UNREAD, null, 1, now, null));
+        }
+        return notificationWriter.insertAll(notifications);
+    }
+
+    public NotificationPreference getPreference(String userId) {
+        return preferenceRepository.findById(userId).orElse(new NotificationPreference(userId, 0));
+    }
+
+    public NotificationPreference updatePreference(String userId, long coalesceWindowSeconds) {
+        if (coalesceWindowSeconds < 0 || coalesceWindowSeconds > NotificationCoalescer.MAX_WINDOW_SECONDS) {
+            throw new IllegalArgumentException("coalesceWindowSeconds must be between 0 and "
+                    + NotificationCoalescer.MAX_WINDOW_SECONDS);
+        }
+        NotificationPreference saved = preferenceRepository.save(new NotificationPreference(userId, coalesceWindowSeconds));
+        notificationCoalescer.updateWindow(userId, Duration.ofSeconds(coalesceWindowSeconds));
+        return saved;
     }
 
-    public List<Notification> getUserNotifications(String userId) {
-        return notificationRepository.findByUserId(userId);
+    public SseEmitter subscribe(String userId, String lastEventId) {
+        if (lastEventId == null || lastEventId.isBlank()) {
+            return notificationHub.subscribe(userId, List::of);
+        }
+        return notificationHub.subscribe(userId,
+                () -> notificationRepository.findTop500ByUserIdAndIdGreaterThanOrderByIdAsc(userId, lastEventId));
+    }
+
+    public NotificationPage getNotificationPage(String userId, Status status, String cursor, int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+
+        Criteria filter = Criteria.where("userId").is(userId);
+        if (status != null) {
+            filter = filter.and("status").is(status);
+        }
+        Query query = Query.query(filter);
+        if (cursor != null && !cursor.isBlank()) {
+            query.addCriteria(after(cursor));
+        }
+        query.with(Sort.by(Sort.Direction.DESC, "createdAt", "_id")).limit(limit + 1);
+
+        List<Notification> notifications = mongoTemplate.find(query, Notification.class);
+        if (notifications.size() <= limit) {
+            return new NotificationPage(notifications, null);
+        }
+
+        List<Notification> items = notifications.subList(0, limit);
+        return new NotificationPage(items, encodeCursor(items.get(limit - 1)));
     }
 
     public Notification changeStatus(String id, Status status) {
-        Notification notif = notificationRepository.findById(id).orElseThrow();
-        notif.setStatus(status);
-        return notificationRepository.save(notif);
+        // Returns the document as it was, so the counter only moves on a real UNREAD <-> READ change
+        Notification previous = mongoTemplate.findAndModify(
+                Query.query(Criteria.where("_id").is(id)),
+                statusUpdate(status),
+                Notification.class);
+        if (previous == null) {
+            throw new NoSuchElementException("Notification not found");
+        }
+
+        if (previous.getStatus() != status) {
+            adjustUnread(previous.getUserId(), status == Status.UNREAD ? 1 : -1);
+        }
+        previous.setStatus(status);
+        previous.setReadAt(status == Status.READ ? LocalDateTime.now() : null);
+        return previous;
+    }
+
+    public long getUnreadCount(String userId) {
+        UnreadCounter counter = mongoTemplate.findById(userId, UnreadCounter.class);
+        return counter == null ? 0 : Math.max(0, counter.getCount());
+    }
+
+    public long markAllRead(String userId) {
+        UpdateResult result = mongoTemplate.updateMulti(
+                Query.query(Criteria.where("userId").is(userId).and("status").is(Status.UNREAD)),
+                statusUpdate(Status.READ),
+                Notification.class);
+
+        // Decrement by what was actually flipped, so notifications created meanwhile stay counted
+        if (result.getModifiedCount() > 0) {
+            adjustUnread(userId, -result.getModifiedCount());
+        }
+        return result.getModifiedCount();
+    }
+
+    // Recomputes every counter from the notifications collection, for backfill or repair. Counters
+    // are overwritten in place and never wiped, so readers never see the collection emptied and
+    // users the recount does not touch keep their concurrent increments.
+    public int rebuildUnreadCounters() {
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("status").is(Status.UNREAD)),
+                Aggregation.group("userId").count().as("count"));
+
+        String rebuildId = new ObjectId().toHexString();
+        int users = 0;
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, UnreadCounter.class);
+        for (Document row : mongoTemplate.aggregate(aggregation, Notification.class, Document.class)) {
+            if (row.get("_id") == null) {
+                continue;
+            }
+            bulk.upsert(Query.query(Criteria.where("_id").is(row.getString("_id"))),
+                    new Update().set("count", ((Number) row.get("count")).longValue()).set("rebuildId", rebuildId));
+            if (++users % INSERT_BATCH_SIZE == 0) {
+                bulk.execute();
+                bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, UnreadCounter.class);
+            }
+        }
+        if (users % INSERT_BATCH_SIZE != 0) {
+            bulk.execute();
+        }
+
+        // Users left without unread notifications were not touched above
+        mongoTemplate.updateMulti(Query.query(Criteria.where("rebuildId").ne(rebuildId).and("count").ne(0)),
+                Update.update("count", 0), UnreadCounter.class);
+        return users;
+    }
+
+    private static Update statusUpdate(Status status) {
+        Update update = Update.update("status", status);
+        return status == Status.READ ? update.currentDate("readAt") : update.unset("readAt");
+    }
+
+    private static String encodeCursor(Notification notification) {
+        String raw = notification.getCreatedAt() + "|" + notification.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Criteria after(String cursor) {
+        LocalDateTime createdAt;
+        ObjectId id;
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", 2);
+            if (parts.length != 2) {
+                throw new IllegalArgumentException();
+            }
+            createdAt = LocalDateTime.parse(parts[0]);
+            id = new ObjectId(parts[1]);
+        } catch (IllegalArgumentException | DateTimeParseException ex) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        return new Criteria().orOperator(
+                Criteria.where("createdAt").lt(createdAt),
+                Criteria.where("createdAt").is(createdAt).and("_id").lt(id));
+    }
+
+    private void adjustUnread(String userId, long delta) {
+        mongoTemplate.upsert(
+                Query.query(Criteria.where("_id").is(userId)),
+                new Update().inc("count", delta),
+                UnreadCounter.class);
     }
 }
@@ -0,0 +1,95 @@
+package com.example.notification.services;
+
+import com.example.notification.entities.Notification;
+import com.example.notification.entities.UnreadCounter;
+import com.example.notification.enums.Status;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.client.result.UpdateResult;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Stores notifications whose ids were assigned up front: one unordered insertMany,
+ * one bulk upsert of the unread counters, then delivery to live subscribers.
+ * Merged notifications are upserted by id instead, and count as new only once.
+ */
+@Component
+@RequiredArgsConstructor
+public class NotificationWriter {
+
+    private final MongoTemplate mongoTemplate;
+    private final NotificationHub notificationHub;
+
+    public int insertAll(List<Notification> notifications) {
+        if (notifications.isEmpty()) {
+            return 0;
+        }
+
+        List<Notification> inserted = notifications;
+        try {
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Notification.class)
+                    .insert(notifications)
+                    .execute();
+        } catch (BulkOperationException ex) {
+            Set<Integer> failed = new HashSet<>();
+            for (BulkWriteError error : ex.getErrors()) {
+                failed.add(error.getIndex());
+            }
+            inserted = new ArrayList<>();
+            for (int i = 0; i < notifications.size(); i++) {
+                if (!failed.contains(i)) {
+                    inserted.add(notifications.get(i));
+                }
+            }
+        }
+        if (inserted.isEmpty()) {
+            return 0;
+        }
+
+        BulkOperations counters = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, UnreadCounter.class);
+        for (Notification notification : inserted) {
+            counters.upsert(Query.query(Criteria.where("_id").is(notification.getUserId())),
+                    new Update().inc("count", 1));
+        }
+        counters.execute();
+
+        inserted.forEach(notificationHub::onCreated);
+        return inserted.size();
+    }
+
+    /**
+     * Writes a merged notification under its pre-assigned id. Returns true if this call
+     * created it; a repeat only refreshes the message and count.
+     */
+    public boolean upsertMerged(Notification notification) {
+        UpdateResult result = mongoTemplate.upsert(
+                Query.query(Criteria.where("_id").is(notification.getId())),
+                new Update()
+                        .setOnInsert("userId", notification.getUserId())
+                        .setOnInsert("kind", notification.getKind())
+                        .setOnInsert("status", Status.UNREAD)
+                        .setOnInsert("createdAt", notification.getCreatedAt())
+                        .set("message", notification.getMessage())
+                        .set("count", notification.getCount()),
+                Notification.class);
+        if (result.getUpsertedId() == null) {
+            return false;
+        }
+
+        mongoTemplate.upsert(Query.query(Criteria.where("_id").is(notification.getUserId())),
+                new Update().inc("count", 1), UnreadCounter.class);
+        notificationHub.onCreated(notification);
+        return true;
+    }
+}
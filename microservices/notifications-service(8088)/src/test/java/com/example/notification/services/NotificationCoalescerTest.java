@@ -0,0 +1,127 @@
+package com.example.notification.services;
+
+import com.example.notification.entities.Notification;
+import com.example.notification.entities.NotificationPreference;
+import com.example.notification.repository.NotificationPreferenceRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class NotificationCoalescerTest {
+
+    private NotificationWriter notificationWriter;
+    private NotificationCoalescer coalescer;
+
+    @BeforeEach
+    void setUp() {
+        notificationWriter = mock(NotificationWriter.class);
+        NotificationPreferenceRepository preferenceRepository = mock(NotificationPreferenceRepository.class);
+        when(preferenceRepository.findById("u1")).thenReturn(Optional.of(new NotificationPreference("u1", 60)));
+        when(preferenceRepository.findById("u2")).thenReturn(Optional.empty());
+        coalescer = new NotificationCoalescer(notificationWriter, preferenceRepository, 3);
+    }
+
+    @Test
+    void usersWithoutAWindowAreNotCoalesced() {
+        assertThat(coalescer.offer(notification("u2", "Ride delayed"))).isNull();
+
+        verifyNoInteractions(notificationWriter);
+    }
+
+    @Test
+    void eventsInAnOpenWindowAreNotWritten() {
+        Notification first = coalescer.offer(notification("u1", "Ride delayed"));
+        Notification second = coalescer.offer(notification("u1", "Ride delayed again"));
+
+        assertThat(second.getId()).isEqualTo(first.getId());
+        assertThat(second.getCount()).isEqualTo(2);
+        assertThat(second.getMessage()).isEqualTo("Ride delayed again");
+        verify(notificationWriter, never()).upsertMerged(any());
+    }
+
+    @Test
+    void fullWindowIsWrittenOnceAndTheNextEventOpensANewOne() {
+        Notification full = null;
+        for (int i = 0; i < 3; i++) {
+            full = coalescer.offer(notification("u1", "Ride delayed"));
+        }
+        Notification next = coalescer.offer(notification("u1", "Ride delayed"));
+
+        Notification written = writtenOnce();
+        assertThat(written.getId()).isEqualTo(full.getId());
+        assertThat(written.getCount()).isEqualTo(3);
+        assertThat(next.getId()).isNotEqualTo(full.getId());
+        assertThat(next.getCount()).isEqualTo(1);
+    }
+
+    @Test
+    void closedWindowsAreWrittenByTheScheduledFlush() {
+        coalescer.updateWindow("u1", Duration.ofNanos(1));
+        coalescer.offer(notification("u1", "Ride delayed"));
+        coalescer.offer(notification("u1", "Ride delayed"));
+
+        coalescer.flushDue();
+        coalescer.flushDue();
+
+        assertThat(writtenOnce().getCount()).isEqualTo(2);
+    }
+
+    @Test
+    void openWindowsWaitForTheirFlushTime() {
+        coalescer.offer(notification("u1", "Ride delayed"));
+
+        coalescer.flushDue();
+
+        verify(notificationWriter, never()).upsertMerged(any());
+    }
+
+    @Test
+    void eventsAfterAFlushNeverRewriteTheFlushedNotification() {
+        coalescer.updateWindow("u1", Duration.ofNanos(1));
+        coalescer.offer(notification("u1", "Ride delayed"));
+        coalescer.flushDue();
+        // The user reads it; later events must not touch it again
+        coalescer.offer(notification("u1", "Ride delayed again"));
+        coalescer.flushDue();
+
+        ArgumentCaptor<Notification> written = ArgumentCaptor.forClass(Notification.class);
+        verify(notificationWriter, times(2)).upsertMerged(written.capture());
+        assertThat(written.getAllValues()).extracting(Notification::getId).doesNotHaveDuplicates();
+    }
+
+    @Test
+    void shutdownWritesOpenWindows() {
+        coalescer.offer(notification("u1", "Ride delayed"));
+        coalescer.offer(notification("u1", "Ride delayed"));
+
+        coalescer.flushAll();
+
+        assertThat(writtenOnce().getCount()).isEqualTo(2);
+    }
+
+    private Notification writtenOnce() {
+        ArgumentCaptor<Notification> written = ArgumentCaptor.forClass(Notification.class);
+        verify(notificationWriter).upsertMerged(written.capture());
+        return written.getValue();
+    }
+
+    private static Notification notification(String userId, String message) {
+        Notification notification = new Notification();
+        notification.setUserId(userId);
+        notification.setKind("ride-update");
+        notification.setMessage(message);
+        return notification;
+    }
+}
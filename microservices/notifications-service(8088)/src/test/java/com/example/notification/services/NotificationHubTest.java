@@ -0,0 +1,191 @@
+package com.example.notification.services;
+
+import com.example.notification.entities.Notification;
+import com.example.notification.enums.Status;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NotificationHubTest {
+
+    private final List<CountDownLatch> latches = new ArrayList<>();
+    private NotificationHub hub;
+
+    @AfterEach
+    void tearDown() {
+        latches.forEach(CountDownLatch::countDown);
+        hub.shutdown();
+    }
+
+    @Test
+    void missedNotificationsAreReplayedOnSubscribe() {
+        hub = hub(1000, Duration.ofSeconds(10));
+        RecordingEmitter emitter = new RecordingEmitter(null);
+
+        hub.subscribe("u1", () -> List.of(notification("n1"), notification("n2"), notification("n3")), emitter);
+
+        await(() -> emitter.sends.get() == 3);
+    }
+
+    @Test
+    void slowSubscriberDoesNotHoldUpPublishingOrOtherSubscribers() {
+        hub = hub(1000, Duration.ofSeconds(10));
+        RecordingEmitter slow = new RecordingEmitter(latch());
+        RecordingEmitter fast = new RecordingEmitter(null);
+        hub.subscribe("u1", List::of, slow);
+        hub.subscribe("u1", List::of, fast);
+
+        long start = System.nanoTime();
+        hub.deliver(notification("n1"));
+        hub.deliver(notification("n2"));
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofMillis(500));
+
+        await(() -> fast.sends.get() == 2);
+        assertThat(slow.sends).hasValue(0);
+    }
+
+    @Test
+    void subscriberThatFallsBehindIsDropped() {
+        hub = hub(2, Duration.ofSeconds(10));
+        CountDownLatch release = latch();
+        RecordingEmitter slow = new RecordingEmitter(release);
+        hub.subscribe("u1", List::of, slow);
+
+        for (int i = 0; i < 5; i++) {
+            hub.deliver(notification("n" + i));
+        }
+
+        assertThat(hub.subscriberCount("u1")).isZero();
+        release.countDown();
+        await(() -> slow.completed);
+    }
+
+    @Test
+    void stuckSendIsDroppedByTheHeartbeat() throws InterruptedException {
+        hub = hub(1000, Duration.ofMillis(100));
+        CountDownLatch release = latch();
+        RecordingEmitter stuck = new RecordingEmitter(release);
+        hub.subscribe("u1", List::of, stuck);
+        hub.deliver(notification("n1"));
+
+        Thread.sleep(250);
+        hub.heartbeat();
+
+        assertThat(hub.subscriberCount("u1")).isZero();
+        release.countDown();
+        await(() -> stuck.completed);
+    }
+
+    @Test
+    void replayLongerThanTheBacklogLimitIsDelivered() {
+        hub = hub(2, Duration.ofSeconds(10));
+        RecordingEmitter emitter = new RecordingEmitter(null);
+        List<Notification> missed = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            missed.add(notification("n" + i));
+        }
+
+        hub.subscribe("u1", () -> missed, emitter);
+
+        await(() -> emitter.sends.get() == 10);
+        assertThat(hub.subscriberCount("u1")).isEqualTo(1);
+    }
+
+    @Test
+    void tensOfThousandsOfIdleSubscribersStayCheap() {
+        hub = hub(1000, Duration.ofSeconds(10));
+        int subscribers = 20_000;
+        List<RecordingEmitter> emitters = new ArrayList<>(subscribers);
+
+        System.gc();
+        Runtime runtime = Runtime.getRuntime();
+        long heapBefore = runtime.totalMemory() - runtime.freeMemory();
+        for (int i = 0; i < subscribers; i++) {
+            RecordingEmitter emitter = new RecordingEmitter(null);
+            emitters.add(emitter);
+            hub.subscribe("user-" + i, List::of, emitter);
+        }
+        System.gc();
+        long heapAfter = runtime.totalMemory() - runtime.freeMemory();
+
+        long start = System.nanoTime();
+        hub.heartbeat();
+        long heartbeatMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        await(() -> emitters.stream().allMatch(emitter -> emitter.sends.get() == 1));
+
+        // The scheduler thread only enqueues; writes happen on the sender pool
+        assertThat(heartbeatMillis).isLessThan(2_000);
+        // Emitter included; a queue pre-sized to the capacity alone would take about 4 KB
+        assertThat((heapAfter - heapBefore) / subscribers).isLessThan(2_048);
+    }
+
+    private NotificationHub hub(int queueCapacity, Duration sendTimeout) {
+        return new NotificationHub(Duration.ofMinutes(30), false, queueCapacity, sendTimeout, 4);
+    }
+
+    private CountDownLatch latch() {
+        CountDownLatch latch = new CountDownLatch(1);
+        latches.add(latch);
+        return latch;
+    }
+
+    private static Notification notification(String id) {
+        return new Notification(id, "u1", "Ride confirmed", Status.UNREAD, null, 1, LocalDateTime.now(), null);
+    }
+
+    private static void await(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError("Condition not met within 10s");
+            }
+            try {
+                Thread.sleep(5);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new AssertionError(e);
+            }
+        }
+    }
+
+    // Stands in for a client connection; a latch makes every write block until released
+    private static class RecordingEmitter extends SseEmitter {
+
+        private final CountDownLatch release;
+        private final AtomicInteger sends = new AtomicInteger();
+        private volatile boolean completed;
+
+        RecordingEmitter(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            if (release != null) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            builder.build();
+            sends.incrementAndGet();
+        }
+
+        @Override
+        public void complete() {
+            completed = true;
+        }
+    }
+}
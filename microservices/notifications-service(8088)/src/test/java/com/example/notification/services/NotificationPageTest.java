@@ -0,0 +1,117 @@
+package com.example.notification.services;
+
+import com.example.notification.client.BookingServiceClient;
+import com.example.notification.dto.NotificationPage;
+import com.example.notification.entities.Notification;
+import com.example.notification.enums.Status;
+import com.example.notification.repository.NotificationPreferenceRepository;
+import com.example.notification.repository.NotificationRepository;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+class NotificationPageTest {
+
+    private static MongoServer server;
+    private static MongoClient client;
+    private static MongoTemplate mongoTemplate;
+
+    private NotificationService notificationService;
+
+    @BeforeAll
+    static void connect() {
+        server = new MongoServer(new MemoryBackend());
+        client = MongoClients.create(server.bindAndGetConnectionString());
+        mongoTemplate = new MongoTemplate(client, "notification_test");
+    }
+
+    @AfterAll
+    static void disconnect() {
+        client.close();
+        server.shutdown();
+    }
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate.getDb().drop();
+        notificationService = new NotificationService(mock(NotificationRepository.class), mock(NotificationHub.class),
+                mongoTemplate, mock(BookingServiceClient.class), mock(NotificationWriter.class),
+                mock(NotificationCoalescer.class), mock(NotificationPreferenceRepository.class));
+    }
+
+    @Test
+    void everyNotificationIsReachableBeyondTheOldListCap() {
+        LocalDateTime base = LocalDateTime.of(2026, 3, 1, 12, 0);
+        List<Notification> stored = new ArrayList<>();
+        for (int i = 0; i < 620; i++) {
+            // Pairs share a createdAt, so ties are broken by id across page boundaries
+            stored.add(notification("u1", Status.UNREAD, base.minusSeconds(i / 2)));
+        }
+        mongoTemplate.insertAll(stored);
+        mongoTemplate.insert(notification("u2", Status.UNREAD, base));
+
+        List<String> seen = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            NotificationPage page = notificationService.getNotificationPage("u1", null, cursor, 100);
+            page.items().forEach(notification -> seen.add(notification.getId()));
+            cursor = page.nextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertThat(pages).isEqualTo(7);
+        assertThat(seen).hasSize(620).doesNotHaveDuplicates();
+        assertThat(seen.get(0)).isEqualTo(stored.get(1).getId());
+    }
+
+    @Test
+    void statusFilterAppliesAcrossPages() {
+        LocalDateTime base = LocalDateTime.of(2026, 3, 1, 12, 0);
+        for (int i = 0; i < 5; i++) {
+            mongoTemplate.insert(notification("u1", i % 2 == 0 ? Status.UNREAD : Status.READ, base.minusMinutes(i)));
+        }
+
+        NotificationPage first = notificationService.getNotificationPage("u1", Status.UNREAD, null, 2);
+        NotificationPage second = notificationService.getNotificationPage("u1", Status.UNREAD, first.nextCursor(), 2);
+
+        assertThat(first.items()).hasSize(2);
+        assertThat(second.items()).hasSize(1);
+        assertThat(second.nextCursor()).isNull();
+        assertThat(second.items()).extracting(Notification::getStatus).containsOnly(Status.UNREAD);
+    }
+
+    @Test
+    void malformedCursorsAreRejectedAsBadInput() {
+        String badDate = Base64.getUrlEncoder().encodeToString(
+                ("yesterday|" + new ObjectId().toHexString()).getBytes(StandardCharsets.UTF_8));
+        String badId = Base64.getUrlEncoder().encodeToString("2026-03-01T12:00|xyz".getBytes(StandardCharsets.UTF_8));
+
+        for (String cursor : List.of("not base64!", badDate, badId)) {
+            assertThatThrownBy(() -> notificationService.getNotificationPage("u1", null, cursor, 20))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessage("Invalid cursor");
+        }
+    }
+
+    private static Notification notification(String userId, Status status, LocalDateTime createdAt) {
+        return new Notification(new ObjectId().toHexString(), userId, "Ride delayed", status, null, 1, createdAt, null);
+    }
+}
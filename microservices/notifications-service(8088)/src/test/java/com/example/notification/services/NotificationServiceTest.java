@@ -0,0 +1,73 @@
+package com.example.notification.services;
+
+import com.example.notification.client.BookingServiceClient;
+import com.example.notification.entities.Notification;
+import com.example.notification.entities.UnreadCounter;
+import com.example.notification.repository.NotificationPreferenceRepository;
+import com.example.notification.repository.NotificationRepository;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationResults;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class NotificationServiceTest {
+
+    private MongoTemplate mongoTemplate;
+    private BulkOperations bulk;
+    private NotificationService notificationService;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate = mock(MongoTemplate.class);
+        bulk = mock(BulkOperations.class);
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, UnreadCounter.class)).thenReturn(bulk);
+        notificationService = new NotificationService(mock(NotificationRepository.class), mock(NotificationHub.class),
+                mongoTemplate, mock(BookingServiceClient.class), mock(NotificationWriter.class),
+                mock(NotificationCoalescer.class), mock(NotificationPreferenceRepository.class));
+    }
+
+    @Test
+    void rebuildOverwritesCountersInPlaceWithoutWipingThem() {
+        when(mongoTemplate.aggregate(any(Aggregation.class), eq(Notification.class), eq(Document.class)))
+                .thenReturn(new AggregationResults<>(List.of(
+                        new Document("_id", "u1").append("count", 3),
+                        new Document("_id", "u2").append("count", 1),
+                        new Document("_id", null).append("count", 7)), new Document()));
+
+        int users = notificationService.rebuildUnreadCounters();
+
+        assertThat(users).isEqualTo(2);
+        ArgumentCaptor<Query> upserted = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> counts = ArgumentCaptor.forClass(Update.class);
+        verify(bulk, times(2)).upsert(upserted.capture(), counts.capture());
+        verify(bulk).execute();
+        assertThat(upserted.getAllValues()).extracting(query -> query.getQueryObject().get("_id"))
+                .containsExactly("u1", "u2");
+        Document firstSet = counts.getAllValues().get(0).getUpdateObject().get("$set", Document.class);
+        assertThat(firstSet.get("count")).isEqualTo(3L);
+        String rebuildId = firstSet.getString("rebuildId");
+
+        // Counters the recount did not reach are zeroed, not deleted
+        ArgumentCaptor<Query> stale = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).updateMulti(stale.capture(), any(Update.class), eq(UnreadCounter.class));
+        assertThat(stale.getValue().getQueryObject().get("rebuildId", Document.class).get("$ne")).isEqualTo(rebuildId);
+        verify(mongoTemplate, never()).remove(any(Query.class), eq(UnreadCounter.class));
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.report.config;
+
+import com.example.report.entities.Report;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "report.auto-ban")
+public class AutoBanProperties {
+
+    private boolean enabled = true;
+
+    // Rolling window, in days, the thresholds are evaluated over
+    private int windowDays = 30;
+
+    // Reports of any reason within the window; 0 disables
+    private int totalThreshold = 10;
+
+    private Map<Report.ReportReason, Integer> reasonThresholds = new EnumMap<>(Report.ReportReason.class);
+
+    private int maxAttempts = 10;
+    private Duration retryBaseDelay = Duration.ofSeconds(5);
+    private Duration retryMaxDelay = Duration.ofMinutes(10);
+    private int relayBatchSize = 20;
+}
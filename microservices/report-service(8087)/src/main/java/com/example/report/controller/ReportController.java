@@ -1,12 +1,23 @@
 package com.example.report.controller;
 
+import com.example.commons.web.ConditionalGet;
+import com.example.report.dto.BulkStatusUpdateRequest;
 import com.example.report.dto.CreateReportRequest;
 import com.example.report.entities.Report;
+import com.example.report.entities.ReportRollup;
+import com.example.report.service.ReportAnalyticsService;
 import com.example.report.service.ReportService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/reports")
@@ -14,6 +25,10 @@ import java.util.List;
 public class ReportController {
 
     private final ReportService reportService;
+    private final ReportAnalyticsService reportAnalyticsService;
+
+    @Value("${report.claim.lease:5m}")
+    private Duration claimLease;
 
     @PostMapping("/create")
     public Report createReport(@RequestBody CreateReportRequest request) {
@@ -40,15 +55,66 @@ public class ReportController {
         return reportService.getReportsByReportedUser(reportedUserId);
     }
 
+    @GetMapping("/reported/{reportedUserId}/counts")
+    public Map<String, Long> getReportCounts(
+            @PathVariable String reportedUserId,
+            @RequestParam(defaultValue = "30") int days) {
+        return reportService.getReportCounts(reportedUserId, days);
+    }
+
+    @GetMapping("/analytics")
+    public List<ReportRollup> getAnalytics(
+            @RequestParam(defaultValue = "DAY") ReportRollup.Granularity granularity,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) Report.ReportReason reason,
+            @RequestParam(required = false) Report.ReportStatus status) {
+        return reportAnalyticsService.getRollups(granularity, from, to, reason, status);
+    }
+
+    @PostMapping("/analytics/rebuild")
+    public Map<String, Object> rebuildAnalytics() {
+        int rollups = reportAnalyticsService.rebuild();
+        return Map.of("status", "success", "rollups", rollups);
+    }
+
     @GetMapping("/{reportId}")
-    public Report getReportById(@PathVariable String reportId) {
+    public Report getReportById(@PathVariable String reportId, WebRequest request) {
+        if (ConditionalGet.notModified(request, reportService.getReportLastModified(reportId))) {
+            return null;
+        }
         return reportService.getReportById(reportId);
     }
 
     @PutMapping("/{reportId}/status")
-    public Report updateReportStatus(
+    public ResponseEntity<?> updateReportStatus(
             @PathVariable String reportId,
             @RequestParam Report.ReportStatus status) {
-        return reportService.updateReportStatus(reportId, status);
+        try {
+            return ResponseEntity.ok(reportService.updateReportStatus(reportId, status));
+        } catch (IllegalStateException ex) {
+            return ResponseEntity.status(409).body(Map.of("error", ex.getMessage()));
+        } catch (RuntimeException ex) {
+            return ResponseEntity.status(400).body(Map.of("error", ex.getMessage()));
+        }
+    }
+
+    @PostMapping("/claim")
+    public List<Report> claimReports(
+            @RequestParam String moderatorId,
+            @RequestParam(defaultValue = "5") int count) {
+        return reportService.claimReports(moderatorId, count, claimLease);
+    }
+
+    @PostMapping("/{reportId}/release")
+    public Report releaseReport(
+            @PathVariable String reportId,
+            @RequestParam String moderatorId) {
+        return reportService.releaseReport(reportId, moderatorId);
+    }
+
+    @PutMapping("/bulk/status")
+    public Map<String, Long> bulkUpdateStatus(@RequestBody BulkStatusUpdateRequest request) {
+        return reportService.bulkUpdateStatus(request);
     }
 }
\ No newline at end of file
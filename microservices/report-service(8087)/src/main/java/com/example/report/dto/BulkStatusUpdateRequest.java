@@ -0,0 +1,15 @@
+package com.example.report.dto;
+
+import com.example.report.entities.Report;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BulkStatusUpdateRequest {
+    // Either explicit ids, or a reportedUserId filter (optionally narrowed by currentStatus)
+    private List<String> reportIds;
+    private String reportedUserId;
+    private Report.ReportStatus currentStatus;
+    private Report.ReportStatus targetStatus;
+}
@@ -0,0 +1,38 @@
+package com.example.report.entities;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Document(collection = "ban_requests")
+@CompoundIndex(name = "status_next_attempt", def = "{'status': 1, 'nextAttemptAt': 1}")
+public class BanRequest {
+
+    // The reported user's id, so at most one request per user is in flight
+    @Id
+    private String userId;
+
+    private String reason;
+
+    private BanRequestStatus status = BanRequestStatus.PENDING;
+    private int attempts;
+    private LocalDateTime nextAttemptAt;
+    private String lastError;
+
+    private LocalDateTime createdAt = LocalDateTime.now();
+    private LocalDateTime updatedAt;
+
+    public enum BanRequestStatus {
+        PENDING,
+        SENT,
+        FAILED
+    }
+}
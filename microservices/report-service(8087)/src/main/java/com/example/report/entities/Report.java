@@ -1,23 +1,34 @@
 package com.example.report.entities;
 
+import com.example.commons.outbox.OutboxEvent;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
 @Document(collection = "reports") // MongoDB collection name
+@CompoundIndex(name = "status_priority_created", def = "{'status': 1, 'reportedUserReportCount': -1, 'createdAt': 1}")
+@CompoundIndex(name = "pending_events", def = "{'pendingEvents.occurredAt': 1}")
 public class Report {
 
     @Id
     private String id;
 
+    @Indexed
     private String reporterId;
+    @Indexed
     private String reportedUserId;
     private String rideId;
 
@@ -26,9 +37,18 @@ public class Report {
 
     private ReportStatus status = ReportStatus.PENDING;
 
+    // Moderation queue: reports against frequently reported users are claimed first
+    private long reportedUserReportCount;
+    private String claimedBy;
+    private LocalDateTime leaseExpiresAt;
+
     private LocalDateTime createdAt = LocalDateTime.now();
     private LocalDateTime updatedAt;
 
+    // Domain events not yet relayed, written together with the state change
+    @JsonIgnore
+    private List<OutboxEvent> pendingEvents = new ArrayList<>();
+
     public enum ReportReason {
         INAPPROPRIATE_BEHAVIOR,
         NO_SHOW,
@@ -40,6 +60,20 @@ public class Report {
         PENDING,
         REVIEWED,
         RESOLVED,
-        DISMISSED
+        DISMISSED;
+
+        public boolean canTransitionTo(ReportStatus target) {
+            return switch (this) {
+                case PENDING -> target != PENDING;
+                case REVIEWED -> target == RESOLVED || target == DISMISSED;
+                case RESOLVED, DISMISSED -> false;
+            };
+        }
+
+        public static List<ReportStatus> sourcesOf(ReportStatus target) {
+            return Arrays.stream(values())
+                    .filter(status -> status.canTransitionTo(target))
+                    .toList();
+        }
     }
 }
@@ -0,0 +1,34 @@
+package com.example.report.entities;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+// One document per reported user and day; rolling windows are a sum over a few of them
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Document(collection = "report_counters")
+@CompoundIndex(name = "user_day", def = "{'reportedUserId': 1, 'day': -1}")
+public class ReportCounter {
+
+    @Id
+    private String id;
+
+    private String reportedUserId;
+    private LocalDate day;
+
+    private long total;
+    private Map<String, Long> byReason = new HashMap<>();
+
+    public static String idFor(String reportedUserId, LocalDate day) {
+        return reportedUserId + ":" + day;
+    }
+}
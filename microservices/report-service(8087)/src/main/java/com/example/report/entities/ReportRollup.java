@@ -0,0 +1,50 @@
+package com.example.report.entities;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+// Number of reports created in a bucket that currently have the given reason and status
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Document(collection = "report_rollups")
+@CompoundIndex(name = "granularity_bucket", def = "{'granularity': 1, 'bucketStart': 1}")
+public class ReportRollup {
+
+    @Id
+    private String id;
+
+    private Granularity granularity;
+    private LocalDateTime bucketStart;
+    private Report.ReportReason reason;
+    private Report.ReportStatus status;
+
+    private long count;
+
+    public enum Granularity {
+        HOUR(ChronoUnit.HOURS),
+        DAY(ChronoUnit.DAYS);
+
+        private final ChronoUnit unit;
+
+        Granularity(ChronoUnit unit) {
+            this.unit = unit;
+        }
+
+        public LocalDateTime bucketOf(LocalDateTime time) {
+            return time.truncatedTo(unit);
+        }
+    }
+
+    public static String idFor(Granularity granularity, LocalDateTime bucketStart,
+                               Report.ReportReason reason, Report.ReportStatus status) {
+        return granularity + ":" + bucketStart + ":" + reason + ":" + status;
+    }
+}
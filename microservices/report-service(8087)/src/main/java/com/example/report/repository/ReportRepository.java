@@ -10,4 +10,5 @@ public interface ReportRepository extends MongoRepository<Report, String> {
     List<Report> findByReportedUserId(String reportedUserId);
     List<Report> findByStatus(Report.ReportStatus status);
     List<Report> findByRideId(String rideId);
+    long countByReportedUserId(String reportedUserId);
 }
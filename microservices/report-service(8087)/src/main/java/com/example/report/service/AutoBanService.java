@@ -0,0 +1,122 @@
+package com.example.report.service;
+
+import com.example.report.config.AutoBanProperties;
+import com.example.report.entities.BanRequest;
+import com.example.report.entities.Report;
+import com.example.report.entities.ReportCounter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+@RequiredArgsConstructor
+public class AutoBanService {
+
+    private final MongoTemplate mongoTemplate;
+    private final AutoBanProperties properties;
+
+    /**
+     * Counts the report and, if it pushes the user over a threshold, queues a ban.
+     * Only local writes happen here; the ban itself is sent by {@link BanRequestRelay}.
+     */
+    public void recordReport(Report report) {
+        if (report.getReportedUserId() == null) {
+            return;
+        }
+
+        LocalDate today = LocalDate.now();
+        Update update = new Update()
+                .setOnInsert("reportedUserId", report.getReportedUserId())
+                .setOnInsert("day", today)
+                .inc("total", 1);
+        if (report.getReason() != null) {
+            update.inc("byReason." + report.getReason().name(), 1);
+        }
+        ReportCounter counter = mongoTemplate.findAndModify(
+                Query.query(Criteria.where("_id").is(ReportCounter.idFor(report.getReportedUserId(), today))),
+                update,
+                FindAndModifyOptions.options().upsert(true).returnNew(true),
+                ReportCounter.class);
+
+        if (!properties.isEnabled() || counter == null) {
+            return;
+        }
+
+        // Today's count comes back from the increment itself, so concurrent reports each see
+        // their own value; only earlier days, which no longer change, are read separately
+        Map<String, Long> window = sum(mongoTemplate.find(
+                Query.query(Criteria.where("reportedUserId").is(report.getReportedUserId())
+                        .and("day").gt(today.minusDays(properties.getWindowDays())).lt(today)),
+                ReportCounter.class));
+        add(window, counter);
+
+        // Every report at or past a threshold queues the ban; an existing request makes repeats no-ops
+        long total = window.getOrDefault("total", 0L);
+        if (properties.getTotalThreshold() > 0 && total >= properties.getTotalThreshold()) {
+            enqueueBan(report.getReportedUserId(), total + " reports in " + properties.getWindowDays() + " days");
+            return;
+        }
+        if (report.getReason() != null) {
+            Integer threshold = properties.getReasonThresholds().get(report.getReason());
+            long reasonCount = window.getOrDefault(report.getReason().name(), 0L);
+            if (threshold != null && threshold > 0 && reasonCount >= threshold) {
+                enqueueBan(report.getReportedUserId(),
+                        reasonCount + " " + report.getReason() + " reports in " + properties.getWindowDays() + " days");
+            }
+        }
+    }
+
+    public Map<String, Long> getWindowCounts(String reportedUserId, int days) {
+        return sum(mongoTemplate.find(
+                Query.query(Criteria.where("reportedUserId").is(reportedUserId)
+                        .and("day").gt(LocalDate.now().minusDays(days))),
+                ReportCounter.class));
+    }
+
+    private static Map<String, Long> sum(List<ReportCounter> counters) {
+        Map<String, Long> counts = new HashMap<>();
+        counters.forEach(counter -> add(counts, counter));
+        return counts;
+    }
+
+    private static void add(Map<String, Long> counts, ReportCounter counter) {
+        counts.merge("total", counter.getTotal(), Long::sum);
+        if (counter.getByReason() != null) {
+            counter.getByReason().forEach((reason, count) -> counts.merge(reason, count, Long::sum));
+        }
+    }
+
+    private void enqueueBan(String userId, String reason) {
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            // Inserts the first request, or re-queues one that was never delivered. A pending or
+            // sent request makes the insert fail on _id and stays as it is, so a ban an admin
+            // has since reverted is not sent again by later reports.
+            mongoTemplate.upsert(
+                    Query.query(Criteria.where("_id").is(userId)
+                            .and("status").is(BanRequest.BanRequestStatus.FAILED)),
+                    new Update()
+                            .set("reason", reason)
+                            .set("status", BanRequest.BanRequestStatus.PENDING)
+                            .set("attempts", 0)
+                            .set("nextAttemptAt", now)
+                            .unset("lastError")
+                            .set("createdAt", now)
+                            .set("updatedAt", now),
+                    BanRequest.class);
+        } catch (DuplicateKeyException ignored) {
+            // already queued or sent
+        }
+    }
+}
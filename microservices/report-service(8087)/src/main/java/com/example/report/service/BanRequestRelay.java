@@ -0,0 +1,96 @@
+package com.example.report.service;
+
+import com.example.commons.http.ServiceHttpClient;
+import com.example.report.config.AutoBanProperties;
+import com.example.report.entities.BanRequest;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClientException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Delivers queued ban requests to authentication-service, retrying with
+ * exponential backoff. Requests are leased before sending so several
+ * report-service instances can run the relay side by side.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BanRequestRelay {
+
+    private static final String BAN_URL = "http://authentication-service/api/auth/users/{userId}/ban";
+    private static final Duration SEND_LEASE = Duration.ofMinutes(1);
+
+    private final MongoTemplate mongoTemplate;
+    private final ServiceHttpClient httpClient;
+    private final AutoBanProperties properties;
+
+    @Scheduled(fixedDelayString = "${report.auto-ban.relay-interval:5s}")
+    public void relay() {
+        for (int i = 0; i < properties.getRelayBatchSize(); i++) {
+            BanRequest request = claimNext();
+            if (request == null) {
+                return;
+            }
+            send(request);
+        }
+    }
+
+    private BanRequest claimNext() {
+        LocalDateTime now = LocalDateTime.now();
+        return mongoTemplate.findAndModify(
+                Query.query(Criteria.where("status").is(BanRequest.BanRequestStatus.PENDING)
+                                .and("nextAttemptAt").lte(now))
+                        .with(Sort.by(Sort.Direction.ASC, "nextAttemptAt")),
+                Update.update("nextAttemptAt", now.plus(SEND_LEASE)),
+                FindAndModifyOptions.options().returnNew(true),
+                BanRequest.class);
+    }
+
+    private void send(BanRequest request) {
+        Query byId = Query.query(Criteria.where("_id").is(request.getUserId()));
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            httpClient.put(BAN_URL, null, request.getUserId());
+            mongoTemplate.updateFirst(byId, new Update()
+                    .set("status", BanRequest.BanRequestStatus.SENT)
+                    .inc("attempts", 1)
+                    .unset("lastError")
+                    .set("updatedAt", now), BanRequest.class);
+            log.info("Auto-banned user {}: {}", request.getUserId(), request.getReason());
+        } catch (RestClientException ex) {
+            int attempts = request.getAttempts() + 1;
+            Update update = new Update()
+                    .set("attempts", attempts)
+                    .set("lastError", ex.getMessage())
+                    .set("updatedAt", now);
+            if (attempts >= properties.getMaxAttempts()) {
+                update.set("status", BanRequest.BanRequestStatus.FAILED);
+                log.error("Giving up auto-ban of user {} after {} attempts", request.getUserId(), attempts, ex);
+            } else {
+                update.set("nextAttemptAt", now.plus(backoff(attempts)));
+                log.warn("Auto-ban of user {} failed (attempt {}): {}", request.getUserId(), attempts, ex.getMessage());
+            }
+            mongoTemplate.updateFirst(byId, update, BanRequest.class);
+        }
+    }
+
+    // Exponential backoff with full jitter
+    private Duration backoff(int attempts) {
+        long base = properties.getRetryBaseDelay().toMillis();
+        long cap = properties.getRetryMaxDelay().toMillis();
+        long ceiling = Math.min(cap, base << Math.min(attempts, 20));
+        return Duration.ofMillis(ThreadLocalRandom.current().nextLong(base, Math.max(base, ceiling) + 1));
+    }
+}
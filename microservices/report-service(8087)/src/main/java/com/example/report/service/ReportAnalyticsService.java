@@ -0,0 +1,118 @@
+package com.example.report.service;
+
+import com.example.report.entities.Report;
+import com.example.report.entities.ReportRollup;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+@Service
+@RequiredArgsConstructor
+public class ReportAnalyticsService {
+
+    private static final Duration MAX_HOURLY_RANGE = Duration.ofDays(31);
+    private static final Duration MAX_DAILY_RANGE = Duration.ofDays(366);
+
+    private final MongoTemplate mongoTemplate;
+
+    public void onCreated(Report report) {
+        if (report.getCreatedAt() == null) {
+            return;
+        }
+        BulkOperations ops = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ReportRollup.class);
+        for (ReportRollup.Granularity granularity : ReportRollup.Granularity.values()) {
+            increment(ops, granularity, report.getCreatedAt(), report.getReason(), report.getStatus(), 1);
+        }
+        ops.execute();
+    }
+
+    public void onStatusChanged(Report report, Report.ReportStatus from, Report.ReportStatus to) {
+        onStatusChanged(List.of(report), from, to);
+    }
+
+    public void onStatusChanged(List<Report> reports, Report.ReportStatus from, Report.ReportStatus to) {
+        if (reports.isEmpty() || from == to) {
+            return;
+        }
+        BulkOperations ops = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ReportRollup.class);
+        for (Report report : reports) {
+            if (report.getCreatedAt() == null) {
+                continue;
+            }
+            for (ReportRollup.Granularity granularity : ReportRollup.Granularity.values()) {
+                increment(ops, granularity, report.getCreatedAt(), report.getReason(), from, -1);
+                increment(ops, granularity, report.getCreatedAt(), report.getReason(), to, 1);
+            }
+        }
+        ops.execute();
+    }
+
+    public List<ReportRollup> getRollups(ReportRollup.Granularity granularity, LocalDateTime from, LocalDateTime to,
+                                         Report.ReportReason reason, Report.ReportStatus status) {
+        Duration maxRange = granularity == ReportRollup.Granularity.HOUR ? MAX_HOURLY_RANGE : MAX_DAILY_RANGE;
+        if (!from.isBefore(to) || Duration.between(from, to).compareTo(maxRange) > 0) {
+            throw new RuntimeException("Range must be positive and at most " + maxRange.toDays() + " days for " + granularity);
+        }
+
+        Query query = Query.query(Criteria.where("granularity").is(granularity)
+                .and("bucketStart").gte(granularity.bucketOf(from)).lt(to));
+        if (reason != null) {
+            query.addCriteria(Criteria.where("reason").is(reason));
+        }
+        if (status != null) {
+            query.addCriteria(Criteria.where("status").is(status));
+        }
+        query.with(Sort.by(Sort.Direction.ASC, "bucketStart"));
+        return mongoTemplate.find(query, ReportRollup.class);
+    }
+
+    // Recomputes every rollup from the reports collection, for backfill or repair
+    public int rebuild() {
+        Query query = new Query();
+        query.fields().include("reason", "status", "createdAt");
+
+        Map<String, ReportRollup> rollups = new HashMap<>();
+        try (Stream<Report> reports = mongoTemplate.stream(query, Report.class)) {
+            reports.filter(r -> r.getCreatedAt() != null).forEach(report -> {
+                for (ReportRollup.Granularity granularity : ReportRollup.Granularity.values()) {
+                    LocalDateTime bucket = granularity.bucketOf(report.getCreatedAt());
+                    String id = ReportRollup.idFor(granularity, bucket, report.getReason(), report.getStatus());
+                    ReportRollup rollup = rollups.computeIfAbsent(id, k -> new ReportRollup(
+                            k, granularity, bucket, report.getReason(), report.getStatus(), 0));
+                    rollup.setCount(rollup.getCount() + 1);
+                }
+            });
+        }
+
+        mongoTemplate.remove(new Query(), ReportRollup.class);
+        if (!rollups.isEmpty()) {
+            mongoTemplate.insertAll(rollups.values());
+        }
+        return rollups.size();
+    }
+
+    private void increment(BulkOperations ops, ReportRollup.Granularity granularity, LocalDateTime createdAt,
+                           Report.ReportReason reason, Report.ReportStatus status, long delta) {
+        LocalDateTime bucket = granularity.bucketOf(createdAt);
+        ops.upsert(
+                Query.query(Criteria.where("_id").is(ReportRollup.idFor(granularity, bucket, reason, status))),
+                new Update()
+                        .setOnInsert("granularity", granularity)
+                        .setOnInsert("bucketStart", bucket)
+                        .setOnInsert("reason", reason)
+                        .setOnInsert("status", status)
+                        .inc("count", delta));
+    }
+}
@@ -1,9 +1,13 @@
 package com.example.report.service;
 
+import com.example.report.dto.BulkStatusUpdateRequest;
 import com.example.report.dto.CreateReportRequest;
 import com.example.report.entities.Report;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 public interface ReportService {
     Report createReport(CreateReportRequest request);
@@ -12,5 +16,10 @@ public interface ReportService {
     List<Report> getReportsByReporter(String reporterId);
     List<Report> getReportsByReportedUser(String reportedUserId);
     Report updateReportStatus(String reportId, Report.ReportStatus status);
+    Map<String, Long> bulkUpdateStatus(BulkStatusUpdateRequest request);
     Report getReportById(String reportId);
+    LocalDateTime getReportLastModified(String reportId);
+    Map<String, Long> getReportCounts(String reportedUserId, int days);
+    List<Report> claimReports(String moderatorId, int count, Duration lease);
+    Report releaseReport(String reportId, String moderatorId);
 }
\ No newline at end of file
@@ -1,19 +1,42 @@
 package com.example.report.service;
 
+import com.example.report.dto.BulkStatusUpdateRequest;
 import com.example.report.dto.CreateReportRequest;
 import com.example.report.entities.Report;
 import com.example.report.repository.ReportRepository;
+import com.example.commons.outbox.OutboxEvent;
+import com.mongodb.bulk.BulkWriteResult;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class ReportServiceImpl implements ReportService {
 
+    private static final int MAX_CLAIM_COUNT = 50;
+    private static final int MAX_BULK_SIZE = 5000;
+    private static final int MAX_STATUS_ATTEMPTS = 3;
+
     private final ReportRepository reportRepository;
+    private final MongoTemplate mongoTemplate;
+    private final AutoBanService autoBanService;
+    private final ReportAnalyticsService reportAnalyticsService;
 
     @Override
     public Report createReport(CreateReportRequest request) {
@@ -24,7 +47,21 @@ public class ReportServiceImpl implements ReportService {
         report.setReason(request.getReason());
         report.setDescription(request.getDescription());
         report.setStatus(Report.ReportStatus.PENDING);
-        return reportRepository.save(report);
+        Report saved = reportRepository.save(report);
+
+        long reportCount = reportRepository.countByReportedUserId(saved.getReportedUserId());
+        mongoTemplate.updateMulti(
+                Query.query(Criteria.where("reportedUserId").is(saved.getReportedUserId())
+                        .and("status").is(Report.ReportStatus.PENDING)),
+                new Update()
+                        .set("reportedUserReportCount", reportCount)
+                        .set("updatedAt", LocalDateTime.now()),
+                Report.class);
+        saved.setReportedUserReportCount(reportCount);
+        autoBanService.recordReport(saved);
+        reportAnalyticsService.onCreated(saved);
+
+        return saved;
     }
 
     @Override
@@ -49,11 +86,125 @@ public class ReportServiceImpl implements ReportService {
 
     @Override
     public Report updateReportStatus(String reportId, Report.ReportStatus status) {
-        Report report = reportRepository.findById(reportId)
-                .orElseThrow(() -> new RuntimeException("Report not found"));
+        // Compare-and-set on the status just read: the rollups move the right bucket and the
+        // status event is written in the same update as the change it describes
+        LocalDateTime now = LocalDateTime.now();
+        Report report = null;
+        for (int attempt = 0; attempt < MAX_STATUS_ATTEMPTS && report == null; attempt++) {
+            Report current = reportRepository.findById(reportId)
+                    .orElseThrow(() -> new RuntimeException("Report not found"));
+            // Same transition rules as the bulk path; the status matched below is therefore a legal source
+            if (!current.getStatus().canTransitionTo(status)) {
+                throw new IllegalStateException("Report cannot move from " + current.getStatus() + " to " + status);
+            }
+            report = mongoTemplate.findAndModify(
+                    Query.query(Criteria.where("_id").is(reportId).and("status").is(current.getStatus())),
+                    statusUpdate(current, status, now),
+                    Report.class);
+        }
+        if (report == null) {
+            throw new IllegalStateException("Report is being updated concurrently, try again");
+        }
+
+        Report.ReportStatus previous = report.getStatus();
         report.setStatus(status);
-        report.setUpdatedAt(LocalDateTime.now());
-        return reportRepository.save(report);
+        report.setClaimedBy(null);
+        report.setLeaseExpiresAt(null);
+        report.setUpdatedAt(now);
+        reportAnalyticsService.onStatusChanged(report, previous, status);
+        return report;
+    }
+
+    @Override
+    public Map<String, Long> bulkUpdateStatus(BulkStatusUpdateRequest request) {
+        Report.ReportStatus target = request.getTargetStatus();
+        if (target == null) {
+            throw new RuntimeException("targetStatus is required");
+        }
+
+        Criteria selection;
+        if (request.getReportIds() != null && !request.getReportIds().isEmpty()) {
+            if (request.getReportIds().size() > MAX_BULK_SIZE) {
+                throw new RuntimeException("At most " + MAX_BULK_SIZE + " reports per request");
+            }
+            selection = Criteria.where("_id").in(request.getReportIds());
+        } else if (request.getReportedUserId() != null) {
+            selection = Criteria.where("reportedUserId").is(request.getReportedUserId());
+        } else {
+            throw new RuntimeException("Either reportIds or reportedUserId is required");
+        }
+        Report.ReportStatus current = request.getCurrentStatus();
+        Query selectionQuery = Query.query(selection);
+        if (current != null) {
+            selectionQuery.addCriteria(Criteria.where("status").is(current));
+        }
+        long matched = mongoTemplate.count(selectionQuery, Report.class);
+
+        List<Report.ReportStatus> sources = Report.ReportStatus.sourcesOf(target).stream()
+                .filter(status -> current == null || status == current)
+                .toList();
+        if (sources.isEmpty()) {
+            return Map.of("matched", matched, "modified", 0L);
+        }
+
+        // Snapshot the reports the transition applies to; the rollups need their previous status
+        Query eligible = Query.query(selection).addCriteria(Criteria.where("status").in(sources));
+        eligible.fields().include("reporterId", "reportedUserId", "reason", "status", "createdAt");
+        eligible.limit(MAX_BULK_SIZE + 1);
+        List<Report> snapshot = mongoTemplate.find(eligible, Report.class);
+        if (snapshot.size() > MAX_BULK_SIZE) {
+            throw new RuntimeException("More than " + MAX_BULK_SIZE + " reports match, narrow the filter");
+        }
+        if (snapshot.isEmpty()) {
+            return Map.of("matched", matched, "modified", 0L);
+        }
+
+        // One update per report so each carries its own status event; still a single round trip
+        List<String> ids = snapshot.stream().map(Report::getId).toList();
+        LocalDateTime now = LocalDateTime.now();
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Report.class);
+        for (Report report : snapshot) {
+            bulk.updateOne(
+                    Query.query(Criteria.where("_id").is(report.getId()).and("status").is(report.getStatus())),
+                    statusUpdate(report, target, now));
+        }
+        BulkWriteResult result = bulk.execute();
+
+        // Reports changed concurrently between snapshot and update are not ours; updatedAt identifies ours
+        Query modifiedQuery = Query.query(Criteria.where("_id").in(ids)
+                .and("status").is(target)
+                .and("updatedAt").is(now));
+        modifiedQuery.fields().include("_id");
+        Set<String> modifiedIds = mongoTemplate.find(modifiedQuery, Report.class).stream()
+                .map(Report::getId)
+                .collect(Collectors.toSet());
+        snapshot.stream()
+                .filter(report -> modifiedIds.contains(report.getId()))
+                .collect(Collectors.groupingBy(Report::getStatus))
+                .forEach((previous, reports) -> reportAnalyticsService.onStatusChanged(reports, previous, target));
+
+        return Map.of("matched", matched, "modified", (long) result.getModifiedCount());
+    }
+
+    private static Update statusUpdate(Report report, Report.ReportStatus status, LocalDateTime now) {
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("reporterId", report.getReporterId());
+        payload.put("reportedUserId", report.getReportedUserId());
+        payload.put("previousStatus", report.getStatus().name());
+        payload.put("status", status.name());
+
+        return new Update()
+                .set("status", status)
+                .unset("claimedBy")
+                .unset("leaseExpiresAt")
+                .set("updatedAt", now)
+                .push("pendingEvents", OutboxEvent.of(eventType(status), payload));
+    }
+
+    // ReportReviewed, ReportResolved, ReportDismissed
+    private static String eventType(Report.ReportStatus status) {
+        String name = status.name();
+        return "Report" + name.charAt(0) + name.substring(1).toLowerCase();
     }
 
     @Override
@@ -61,4 +212,67 @@ public class ReportServiceImpl implements ReportService {
         return reportRepository.findById(reportId)
                 .orElseThrow(() -> new RuntimeException("Report not found"));
     }
-}
\ No newline at end of file
+
+    @Override
+    public LocalDateTime getReportLastModified(String reportId) {
+        Query query = Query.query(Criteria.where("_id").is(reportId));
+        query.fields().include("updatedAt", "createdAt");
+        Report report = mongoTemplate.findOne(query, Report.class);
+        if (report == null) {
+            throw new RuntimeException("Report not found");
+        }
+        return report.getUpdatedAt() != null ? report.getUpdatedAt() : report.getCreatedAt();
+    }
+
+    @Override
+    public Map<String, Long> getReportCounts(String reportedUserId, int days) {
+        return autoBanService.getWindowCounts(reportedUserId, days);
+    }
+
+    @Override
+    public List<Report> claimReports(String moderatorId, int count, Duration lease) {
+        if (count < 1 || count > MAX_CLAIM_COUNT) {
+            throw new RuntimeException("count must be between 1 and " + MAX_CLAIM_COUNT);
+        }
+
+        // Expired leases match the query again, so lapsed claims go back to the queue without a sweeper
+        LocalDateTime now = LocalDateTime.now();
+        Query query = Query.query(Criteria.where("status").is(Report.ReportStatus.PENDING)
+                        .orOperator(
+                                Criteria.where("claimedBy").is(null),
+                                Criteria.where("leaseExpiresAt").lt(now)))
+                .with(Sort.by(Sort.Direction.DESC, "reportedUserReportCount")
+                        .and(Sort.by(Sort.Direction.ASC, "createdAt")));
+        Update update = new Update()
+                .set("claimedBy", moderatorId)
+                .set("leaseExpiresAt", now.plus(lease))
+                .set("updatedAt", now);
+
+        List<Report> claimed = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Report report = mongoTemplate.findAndModify(query, update,
+                    FindAndModifyOptions.options().returnNew(true), Report.class);
+            if (report == null) {
+                break;
+            }
+            claimed.add(report);
+        }
+        return claimed;
+    }
+
+    @Override
+    public Report releaseReport(String reportId, String moderatorId) {
+        Report report = mongoTemplate.findAndModify(
+                Query.query(Criteria.where("_id").is(reportId).and("claimedBy").is(moderatorId)),
+                new Update()
+                        .unset("claimedBy")
+                        .unset("leaseExpiresAt")
+                        .set("updatedAt", LocalDateTime.now()),
+                FindAndModifyOptions.options().returnNew(true),
+                Report.class);
+        if (report == null) {
+            throw new RuntimeException("Report not claimed by this moderator");
+        }
+        return report;
+    }
+}
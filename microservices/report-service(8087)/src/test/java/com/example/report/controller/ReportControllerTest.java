@@ -0,0 +1,47 @@
+package com.example.report.controller;
+
+import com.example.report.entities.Report;
+import com.example.report.service.ReportAnalyticsService;
+import com.example.report.service.ReportService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class ReportControllerTest {
+
+    private ReportService reportService;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        reportService = mock(ReportService.class);
+        mockMvc = MockMvcBuilders.standaloneSetup(new ReportController(reportService, mock(ReportAnalyticsService.class)))
+                .build();
+    }
+
+    @Test
+    void illegalTransitionIsAConflict() throws Exception {
+        when(reportService.updateReportStatus("r1", Report.ReportStatus.PENDING))
+                .thenThrow(new IllegalStateException("Report cannot move from RESOLVED to PENDING"));
+
+        mockMvc.perform(put("/api/reports/r1/status").param("status", "PENDING"))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.error").value("Report cannot move from RESOLVED to PENDING"));
+    }
+
+    @Test
+    void unknownReportIsABadRequest() throws Exception {
+        when(reportService.updateReportStatus("missing", Report.ReportStatus.REVIEWED))
+                .thenThrow(new RuntimeException("Report not found"));
+
+        mockMvc.perform(put("/api/reports/missing/status").param("status", "REVIEWED"))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,157 @@
+package com.example.report.service;
+
+import com.example.report.config.AutoBanProperties;
+import com.example.report.entities.BanRequest;
+import com.example.report.entities.Report;
+import com.example.report.entities.ReportCounter;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AutoBanServiceTest {
+
+    private static final String USER = "u1";
+
+    private MongoTemplate mongoTemplate;
+    private AutoBanProperties properties;
+    private AutoBanService autoBanService;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate = mock(MongoTemplate.class);
+        properties = new AutoBanProperties();
+        properties.setTotalThreshold(10);
+        properties.getReasonThresholds().put(Report.ReportReason.UNSAFE_DRIVING, 3);
+        autoBanService = new AutoBanService(mongoTemplate, properties);
+    }
+
+    @Test
+    void belowTheThresholdNothingIsQueued() {
+        givenCounts(today(4, Map.of()), earlier(5, Map.of()));
+
+        autoBanService.recordReport(report(Report.ReportReason.OTHER));
+
+        verify(mongoTemplate, never()).upsert(any(Query.class), any(Update.class), eq(BanRequest.class));
+    }
+
+    @Test
+    void reachingTheTotalThresholdQueuesABan() {
+        givenCounts(today(4, Map.of()), earlier(6, Map.of()));
+
+        autoBanService.recordReport(report(Report.ReportReason.OTHER));
+
+        assertThat(queuedBanReason()).isEqualTo("10 reports in 30 days");
+    }
+
+    @Test
+    void overshootingTheThresholdStillQueuesABan() {
+        // A concurrent report took the count past 10 before this one was evaluated
+        givenCounts(today(6, Map.of()), earlier(6, Map.of()));
+
+        autoBanService.recordReport(report(Report.ReportReason.OTHER));
+
+        assertThat(queuedBanReason()).isEqualTo("12 reports in 30 days");
+    }
+
+    @Test
+    void reasonThresholdCountsOnlyThatReason() {
+        givenCounts(today(2, Map.of("UNSAFE_DRIVING", 2L)), earlier(1, Map.of("UNSAFE_DRIVING", 1L)));
+
+        autoBanService.recordReport(report(Report.ReportReason.UNSAFE_DRIVING));
+
+        assertThat(queuedBanReason()).isEqualTo("3 UNSAFE_DRIVING reports in 30 days");
+    }
+
+    @Test
+    void counterIsIncrementedAtomicallyAndReturnedAfterTheUpdate() {
+        givenCounts(today(1, Map.of()));
+
+        autoBanService.recordReport(report(Report.ReportReason.OTHER));
+
+        ArgumentCaptor<FindAndModifyOptions> options = ArgumentCaptor.forClass(FindAndModifyOptions.class);
+        verify(mongoTemplate).findAndModify(any(Query.class), any(Update.class), options.capture(),
+                eq(ReportCounter.class));
+        assertThat(options.getValue().isReturnNew()).isTrue();
+        assertThat(options.getValue().isUpsert()).isTrue();
+    }
+
+    @Test
+    void sentBanIsNotQueuedAgainAfterAnAdminUnban() {
+        // The user was auto-banned (request SENT) and then unbanned by an admin; one more report arrives
+        givenCounts(today(1, Map.of()), earlier(10, Map.of()));
+        when(mongoTemplate.upsert(any(Query.class), any(Update.class), eq(BanRequest.class)))
+                .thenThrow(new DuplicateKeyException("E11000 duplicate key error collection: ban_requests"));
+
+        autoBanService.recordReport(report(Report.ReportReason.OTHER));
+
+        // Only a request that was never delivered may be reset; anything else is left alone
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).upsert(query.capture(), any(Update.class), eq(BanRequest.class));
+        assertThat(query.getValue().getQueryObject())
+                .containsEntry("_id", USER)
+                .containsEntry("status", BanRequest.BanRequestStatus.FAILED);
+        verify(mongoTemplate, never()).updateFirst(any(Query.class), any(Update.class), eq(BanRequest.class));
+        verify(mongoTemplate, never()).save(any(BanRequest.class));
+    }
+
+    @Test
+    void disabledAutoBanOnlyCounts() {
+        properties.setEnabled(false);
+        givenCounts(today(20, Map.of()));
+
+        autoBanService.recordReport(report(Report.ReportReason.OTHER));
+
+        verify(mongoTemplate, never()).find(any(Query.class), eq(ReportCounter.class));
+        verify(mongoTemplate, never()).upsert(any(Query.class), any(Update.class), eq(BanRequest.class));
+    }
+
+    private void givenCounts(ReportCounter today, ReportCounter... earlier) {
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                eq(ReportCounter.class))).thenReturn(today);
+        when(mongoTemplate.find(any(Query.class), eq(ReportCounter.class))).thenReturn(List.of(earlier));
+    }
+
+    private String queuedBanReason() {
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).upsert(any(Query.class), update.capture(), eq(BanRequest.class));
+        return update.getValue().getUpdateObject().get("$set", Document.class).getString("reason");
+    }
+
+    private static ReportCounter today(long total, Map<String, Long> byReason) {
+        return counter(LocalDate.now(), total, byReason);
+    }
+
+    private static ReportCounter earlier(long total, Map<String, Long> byReason) {
+        return counter(LocalDate.now().minusDays(3), total, byReason);
+    }
+
+    private static ReportCounter counter(LocalDate day, long total, Map<String, Long> byReason) {
+        return new ReportCounter(ReportCounter.idFor(USER, day), USER, day, total, new HashMap<>(byReason));
+    }
+
+    private static Report report(Report.ReportReason reason) {
+        Report report = new Report();
+        report.setReportedUserId(USER);
+        report.setReason(reason);
+        return report;
+    }
+}
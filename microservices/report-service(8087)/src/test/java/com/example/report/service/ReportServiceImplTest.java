@@ -0,0 +1,162 @@
+package com.example.report.service;
+
+import com.example.report.dto.BulkStatusUpdateRequest;
+import com.example.report.entities.Report;
+import com.example.report.repository.ReportRepository;
+import com.mongodb.bulk.BulkWriteResult;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ReportServiceImplTest {
+
+    private ReportRepository reportRepository;
+    private MongoTemplate mongoTemplate;
+    private ReportAnalyticsService reportAnalyticsService;
+    private ReportServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        reportRepository = mock(ReportRepository.class);
+        mongoTemplate = mock(MongoTemplate.class);
+        reportAnalyticsService = mock(ReportAnalyticsService.class);
+        service = new ReportServiceImpl(reportRepository, mongoTemplate, mock(AutoBanService.class), reportAnalyticsService);
+    }
+
+    @Test
+    void statusUpdateMatchesOnTheStatusItRead() {
+        when(reportRepository.findById("r1")).thenReturn(Optional.of(report("r1", Report.ReportStatus.PENDING)));
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), eq(Report.class)))
+                .thenReturn(report("r1", Report.ReportStatus.PENDING));
+
+        Report updated = service.updateReportStatus("r1", Report.ReportStatus.REVIEWED);
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).findAndModify(query.capture(), update.capture(), eq(Report.class));
+        assertThat(query.getValue().getQueryObject().get("status")).isEqualTo(Report.ReportStatus.PENDING);
+        assertThat(update.getValue().getUpdateObject().get("$set", Document.class).get("status"))
+                .isEqualTo(Report.ReportStatus.REVIEWED);
+        assertThat(update.getValue().getUpdateObject().get("$push", Document.class)).containsKey("pendingEvents");
+
+        assertThat(updated.getStatus()).isEqualTo(Report.ReportStatus.REVIEWED);
+        verify(reportAnalyticsService).onStatusChanged(updated, Report.ReportStatus.PENDING, Report.ReportStatus.REVIEWED);
+    }
+
+    @Test
+    void lostRaceIsRetriedAgainstTheNewStatus() {
+        when(reportRepository.findById("r1")).thenReturn(
+                Optional.of(report("r1", Report.ReportStatus.PENDING)),
+                Optional.of(report("r1", Report.ReportStatus.REVIEWED)));
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), eq(Report.class)))
+                .thenReturn(null, report("r1", Report.ReportStatus.REVIEWED));
+
+        Report updated = service.updateReportStatus("r1", Report.ReportStatus.RESOLVED);
+
+        ArgumentCaptor<Query> queries = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate, times(2)).findAndModify(queries.capture(), any(Update.class), eq(Report.class));
+        assertThat(queries.getAllValues()).extracting(query -> query.getQueryObject().get("status"))
+                .containsExactly(Report.ReportStatus.PENDING, Report.ReportStatus.REVIEWED);
+        // The rollups move the bucket the report actually left, not the one first read
+        verify(reportAnalyticsService).onStatusChanged(updated, Report.ReportStatus.REVIEWED, Report.ReportStatus.RESOLVED);
+    }
+
+    @Test
+    void illegalTransitionIsRejectedWithoutWriting() {
+        when(reportRepository.findById("r1")).thenReturn(Optional.of(report("r1", Report.ReportStatus.RESOLVED)));
+
+        assertThatThrownBy(() -> service.updateReportStatus("r1", Report.ReportStatus.PENDING))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Report cannot move from RESOLVED to PENDING");
+        verify(mongoTemplate, never()).findAndModify(any(Query.class), any(Update.class), eq(Report.class));
+        verify(reportAnalyticsService, never())
+                .onStatusChanged(any(Report.class), any(Report.ReportStatus.class), any(Report.ReportStatus.class));
+    }
+
+    @Test
+    void transitionMadeIllegalByARaceIsRejected() {
+        // Read as PENDING, but a moderator resolved it before our update landed
+        when(reportRepository.findById("r1")).thenReturn(
+                Optional.of(report("r1", Report.ReportStatus.PENDING)),
+                Optional.of(report("r1", Report.ReportStatus.RESOLVED)));
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), eq(Report.class))).thenReturn(null);
+
+        assertThatThrownBy(() -> service.updateReportStatus("r1", Report.ReportStatus.DISMISSED))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Report cannot move from RESOLVED to DISMISSED");
+        verify(mongoTemplate, times(1)).findAndModify(any(Query.class), any(Update.class), eq(Report.class));
+    }
+
+    @Test
+    void statusUpdateGivesUpAfterRepeatedRaces() {
+        when(reportRepository.findById("r1")).thenReturn(Optional.of(report("r1", Report.ReportStatus.PENDING)));
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), eq(Report.class))).thenReturn(null);
+
+        assertThatThrownBy(() -> service.updateReportStatus("r1", Report.ReportStatus.REVIEWED))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessageContaining("concurrently");
+        verify(mongoTemplate, times(3)).findAndModify(any(Query.class), any(Update.class), eq(Report.class));
+        verify(reportAnalyticsService, never())
+                .onStatusChanged(any(Report.class), any(Report.ReportStatus.class), any(Report.ReportStatus.class));
+    }
+
+    @Test
+    void bulkUpdateConditionsEachReportOnItsSnapshotStatus() {
+        Report pending = report("r1", Report.ReportStatus.PENDING);
+        Report reviewed = report("r2", Report.ReportStatus.REVIEWED);
+        Report raced = report("r3", Report.ReportStatus.PENDING);
+        when(mongoTemplate.count(any(Query.class), eq(Report.class))).thenReturn(3L);
+        // First the snapshot, then the reports this call turned out to modify; r3 changed in between
+        when(mongoTemplate.find(any(Query.class), eq(Report.class)))
+                .thenReturn(List.of(pending, reviewed, raced), List.of(pending, reviewed));
+
+        BulkOperations bulk = mock(BulkOperations.class);
+        BulkWriteResult result = mock(BulkWriteResult.class);
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Report.class)).thenReturn(bulk);
+        when(bulk.execute()).thenReturn(result);
+        when(result.getModifiedCount()).thenReturn(2);
+
+        BulkStatusUpdateRequest request = new BulkStatusUpdateRequest();
+        request.setReportIds(List.of("r1", "r2", "r3"));
+        request.setTargetStatus(Report.ReportStatus.RESOLVED);
+
+        Map<String, Long> counts = service.bulkUpdateStatus(request);
+
+        assertThat(counts).containsEntry("matched", 3L).containsEntry("modified", 2L);
+        ArgumentCaptor<Query> updates = ArgumentCaptor.forClass(Query.class);
+        verify(bulk, times(3)).updateOne(updates.capture(), any(Update.class));
+        assertThat(updates.getAllValues()).extracting(query -> query.getQueryObject().get("status"))
+                .containsExactly(Report.ReportStatus.PENDING, Report.ReportStatus.REVIEWED, Report.ReportStatus.PENDING);
+        verify(reportAnalyticsService).onStatusChanged(List.of(pending), Report.ReportStatus.PENDING, Report.ReportStatus.RESOLVED);
+        verify(reportAnalyticsService).onStatusChanged(List.of(reviewed), Report.ReportStatus.REVIEWED, Report.ReportStatus.RESOLVED);
+    }
+
+    private static Report report(String id, Report.ReportStatus status) {
+        Report report = new Report();
+        report.setId(id);
+        report.setReporterId("reporter");
+        report.setReportedUserId("reported");
+        report.setReason(Report.ReportReason.OTHER);
+        report.setStatus(status);
+        return report;
+    }
+}
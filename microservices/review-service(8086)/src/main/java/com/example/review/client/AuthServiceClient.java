@@ -0,0 +1,36 @@
+package com.example.review.client;
+
+import com.example.commons.http.ServiceHttpClient;
+import com.example.review.entities.RatingSummary;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClientException;
+
+import java.util.Map;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AuthServiceClient {
+
+    private static final String RATING_URL = "http://authentication-service/api/auth/users/{userId}/rating";
+
+    private final ServiceHttpClient httpClient;
+
+    // Sends absolute values with the summary revision, so a lost or reordered update is
+    // repaired by the next one and a rebuild that lowers the count still goes through.
+    @Async
+    public void syncRating(RatingSummary summary) {
+        try {
+            httpClient.put(RATING_URL,
+                    Map.of("rating", summary.getAverage(),
+                            "numberOfRatings", summary.getCount(),
+                            "revision", summary.getRevision()),
+                    summary.getUserId());
+        } catch (RestClientException ex) {
+            log.warn("Failed to sync rating for user {}: {}", summary.getUserId(), ex.getMessage());
+        }
+    }
+}
@@ -1,11 +1,16 @@
 package com.example.review.controller;
 
 import com.example.review.dto.CreateReviewRequest;
+import com.example.review.dto.ReviewPage;
 import com.example.review.entities.Review;
 import com.example.review.service.ReviewService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
 import java.util.List;
 import java.util.Map;
 
@@ -16,6 +21,9 @@ public class ReviewController {
 
     private final ReviewService reviewService;
 
+    @Value("${reviews.admin-token:}")
+    private String adminToken = "";
+
     @PostMapping("/create")
     public Review createReview(@RequestBody CreateReviewRequest request) {
         return reviewService.createReview(request);
@@ -32,6 +40,15 @@ public class ReviewController {
         return Map.of("userId", userId, "averageRating", average);
     }
 
+    @PostMapping("/users/average")
+    public ResponseEntity<?> getAverageRatings(@RequestBody List<String> ids) {
+        try {
+            return ResponseEntity.ok(reviewService.getAverageRatings(ids));
+        } catch (RuntimeException ex) {
+            return ResponseEntity.status(400).body(Map.of("error", ex.getMessage()));
+        }
+    }
+
     @GetMapping("/ride/{rideId}")
     public List<Review> getReviewsByRide(@PathVariable String rideId) {
         return reviewService.getReviewsByRide(rideId);
@@ -43,4 +60,55 @@ public class ReviewController {
             @PathVariable Review.ReviewType type) {
         return reviewService.getReviewsByReviewedUserAndType(userId, type);
     }
+
+    @GetMapping("/user/{userId}/feed")
+    public ResponseEntity<?> getReviewFeedForUser(
+            @PathVariable String userId,
+            @RequestParam(required = false) Review.ReviewType type,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit) {
+        try {
+            ReviewPage page = reviewService.getReviewFeedForUser(userId, type, cursor, limit);
+            return ResponseEntity.ok(page);
+        } catch (RuntimeException ex) {
+            return ResponseEntity.status(400).body(Map.of("error", ex.getMessage()));
+        }
+    }
+
+    @GetMapping("/ride/{rideId}/feed")
+    public ResponseEntity<?> getReviewFeedForRide(
+            @PathVariable String rideId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit) {
+        try {
+            ReviewPage page = reviewService.getReviewFeedForRide(rideId, cursor, limit);
+            return ResponseEntity.ok(page);
+        } catch (RuntimeException ex) {
+            return ResponseEntity.status(400).body(Map.of("error", ex.getMessage()));
+        }
+    }
+
+    @GetMapping("/user/{userId}/stats")
+    public ResponseEntity<?> getReviewStats(
+            @PathVariable String userId,
+            @RequestParam(required = false) Review.ReviewType type,
+            @RequestParam(defaultValue = "30") int days) {
+        try {
+            return ResponseEntity.ok(reviewService.getReviewStats(userId, type, days));
+        } catch (RuntimeException ex) {
+            return ResponseEntity.status(400).body(Map.of("error", ex.getMessage()));
+        }
+    }
+
+    @PostMapping("/ratings/rebuild")
+    public ResponseEntity<?> rebuildRatingSummaries(
+            @RequestHeader(value = "X-Admin-Token", required = false) String token) {
+        // Disabled unless a token is configured
+        if (adminToken.isEmpty() || token == null
+                || !MessageDigest.isEqual(adminToken.getBytes(StandardCharsets.UTF_8), token.getBytes(StandardCharsets.UTF_8))) {
+            return ResponseEntity.status(403).body(Map.of("error", "Admin token required"));
+        }
+        int users = reviewService.rebuildRatingSummaries();
+        return ResponseEntity.ok(Map.of("status", "success", "users", users));
+    }
 }
\ No newline at end of file
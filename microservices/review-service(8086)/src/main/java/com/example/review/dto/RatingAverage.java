@@ -0,0 +1,7 @@
+package com.example.review.dto;
+
+public record RatingAverage(
+        String userId,
+        double averageRating,
+        long count
+) {}
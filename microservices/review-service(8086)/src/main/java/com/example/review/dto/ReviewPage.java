@@ -0,0 +1,10 @@
+package com.example.review.dto;
+
+import com.example.review.entities.Review;
+
+import java.util.List;
+
+public record ReviewPage(
+        List<Review> items,
+        String nextCursor
+) {}
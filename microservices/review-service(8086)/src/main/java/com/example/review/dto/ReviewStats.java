@@ -0,0 +1,19 @@
+package com.example.review.dto;
+
+import java.util.List;
+import java.util.Map;
+
+public record ReviewStats(
+        String userId,
+        long count,
+        double averageRating,
+        Map<String, Long> distribution,
+        List<TrendBucket> trend
+) {
+
+    public record TrendBucket(
+            String day,
+            long count,
+            double averageRating
+    ) {}
+}
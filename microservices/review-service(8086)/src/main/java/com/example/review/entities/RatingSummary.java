@@ -0,0 +1,39 @@
+package com.example.review.entities;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Document(collection = "rating_summaries")
+public class RatingSummary {
+
+    @Id
+    private String userId;
+
+    private long sum;
+    private long count;
+
+    // Star value ("1".."5") -> number of reviews
+    private Map<String, Long> histogram = new HashMap<>();
+
+    private LocalDateTime updatedAt;
+
+    // Bumped by every write, so a rebuild only replaces the summary it actually read
+    private long revision;
+
+    // Reviews saved but not yet added to the totals
+    private int pending;
+
+    public double getAverage() {
+        return count == 0 ? 0.0 : (double) sum / count;
+    }
+}
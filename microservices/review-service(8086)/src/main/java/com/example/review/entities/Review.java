@@ -4,6 +4,7 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.LocalDateTime;
@@ -12,6 +13,10 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 @NoArgsConstructor
 @Document(collection = "reviews")
+@CompoundIndex(name = "reviewed_type_created", def = "{'reviewedId': 1, 'type': 1, 'createdAt': -1, '_id': -1}")
+@CompoundIndex(name = "reviewed_created", def = "{'reviewedId': 1, 'createdAt': -1, '_id': -1}")
+@CompoundIndex(name = "ride_created", def = "{'rideId': 1, 'createdAt': -1, '_id': -1}")
+@CompoundIndex(name = "reviewer_created", def = "{'reviewerId': 1, 'createdAt': -1}")
 public class Review {
 
     @Id
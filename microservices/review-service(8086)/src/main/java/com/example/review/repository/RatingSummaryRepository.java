@@ -0,0 +1,7 @@
+package com.example.review.repository;
+
+import com.example.review.entities.RatingSummary;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+public interface RatingSummaryRepository extends MongoRepository<RatingSummary, String> {
+}
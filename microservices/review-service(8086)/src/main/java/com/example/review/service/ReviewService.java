@@ -1,6 +1,9 @@
 package com.example.review.service;
 
 import com.example.review.dto.CreateReviewRequest;
+import com.example.review.dto.RatingAverage;
+import com.example.review.dto.ReviewPage;
+import com.example.review.dto.ReviewStats;
 import com.example.review.entities.Review;
 
 import java.util.List;
@@ -11,5 +14,10 @@ public interface ReviewService {
     List<Review> getReviewsByReviewer(String reviewerId);
     List<Review> getReviewsByRide(String rideId);
     Double getAverageRating(String userId);
+    List<RatingAverage> getAverageRatings(List<String> userIds);
     List<Review> getReviewsByReviewedUserAndType(String userId, Review.ReviewType type);
+    ReviewPage getReviewFeedForUser(String userId, Review.ReviewType type, String cursor, int limit);
+    ReviewPage getReviewFeedForRide(String rideId, String cursor, int limit);
+    ReviewStats getReviewStats(String userId, Review.ReviewType type, int days);
+    int rebuildRatingSummaries();
 }
@@ -1,21 +1,62 @@
 package com.example.review.service;
 
+import com.example.review.client.AuthServiceClient;
 import com.example.review.dto.CreateReviewRequest;
+import com.example.review.dto.RatingAverage;
+import com.example.review.dto.ReviewPage;
+import com.example.review.dto.ReviewStats;
+import com.example.review.entities.RatingSummary;
 import com.example.review.entities.Review;
+import com.example.review.repository.RatingSummaryRepository;
 import com.example.review.repository.ReviewRepository;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.DateOperators;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class ReviewServiceImpl implements ReviewService {
 
+    private static final int MAX_BATCH_SIZE = 500;
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_TREND_DAYS = 365;
+    private static final int REBUILD_ATTEMPTS = 3;
+    // A review that never got added (the service died in between) stops blocking a rebuild after this
+    private static final Duration STALE_PENDING = Duration.ofMinutes(1);
+
     private final ReviewRepository reviewRepository;
+    private final RatingSummaryRepository ratingSummaryRepository;
+    private final MongoTemplate mongoTemplate;
+    private final AuthServiceClient authServiceClient;
 
     @Override
     public Review createReview(CreateReviewRequest request) {
+        if (request.getRating() == null || request.getRating() < 1 || request.getRating() > 5) {
+            throw new RuntimeException("Rating must be between 1 and 5");
+        }
+
         Review review = new Review();
         review.setReviewerId(request.getReviewerId());
         review.setReviewedId(request.getReviewedId());
@@ -23,7 +64,32 @@ public class ReviewServiceImpl implements ReviewService {
         review.setRating(request.getRating());
         review.setComment(request.getComment());
         review.setType(request.getType());
-        return reviewRepository.save(review);
+
+        // Marked before the review becomes visible, so a concurrent rebuild cannot count it
+        // and then have the increment below land on top of its totals
+        Query summaryQuery = Query.query(Criteria.where("_id").is(review.getReviewedId()));
+        mongoTemplate.upsert(summaryQuery, revise(new Update().inc("pending", 1)), RatingSummary.class);
+
+        Review saved;
+        try {
+            saved = reviewRepository.save(review);
+        } catch (RuntimeException ex) {
+            mongoTemplate.updateFirst(summaryQuery, revise(new Update().inc("pending", -1)), RatingSummary.class);
+            throw ex;
+        }
+
+        RatingSummary summary = mongoTemplate.findAndModify(
+                summaryQuery,
+                revise(new Update()
+                        .inc("sum", saved.getRating())
+                        .inc("count", 1)
+                        .inc("histogram." + saved.getRating(), 1)
+                        .inc("pending", -1)),
+                FindAndModifyOptions.options().returnNew(true).upsert(true),
+                RatingSummary.class);
+        authServiceClient.syncRating(summary);
+
+        return saved;
     }
 
     @Override
@@ -43,18 +109,238 @@ public class ReviewServiceImpl implements ReviewService {
 
     @Override
     public Double getAverageRating(String userId) {
-        List<Review> reviews = reviewRepository.findByReviewedId(userId);
-        if (reviews.isEmpty()) {
-            return 0.0;
-        }
-        return reviews.stream()
-                .mapToInt(Review::getRating)
-                .average()
+        return ratingSummaryRepository.findById(userId)
+                .map(RatingSummary::getAverage)
                 .orElse(0.0);
     }
 
+    @Override
+    public List<RatingAverage> getAverageRatings(List<String> userIds) {
+        if (userIds.size() > MAX_BATCH_SIZE) {
+            throw new RuntimeException("At most " + MAX_BATCH_SIZE + " user ids per request");
+        }
+
+        LinkedHashSet<String> ids = new LinkedHashSet<>(userIds);
+        Map<String, RatingSummary> summaries = new HashMap<>();
+        ratingSummaryRepository.findAllById(ids).forEach(s -> summaries.put(s.getUserId(), s));
+
+        return ids.stream()
+                .map(id -> {
+                    RatingSummary summary = summaries.get(id);
+                    return summary == null
+                            ? new RatingAverage(id, 0.0, 0)
+                            : new RatingAverage(id, summary.getAverage(), summary.getCount());
+                })
+                .toList();
+    }
+
     @Override
     public List<Review> getReviewsByReviewedUserAndType(String userId, Review.ReviewType type) {
         return reviewRepository.findByReviewedIdAndType(userId, type);
     }
-}
\ No newline at end of file
+
+    @Override
+    public ReviewPage getReviewFeedForUser(String userId, Review.ReviewType type, String cursor, int limit) {
+        Criteria filter = Criteria.where("reviewedId").is(userId);
+        if (type != null) {
+            filter = filter.and("type").is(type);
+        }
+        return feed(filter, cursor, limit);
+    }
+
+    @Override
+    public ReviewPage getReviewFeedForRide(String rideId, String cursor, int limit) {
+        return feed(Criteria.where("rideId").is(rideId), cursor, limit);
+    }
+
+    @Override
+    public ReviewStats getReviewStats(String userId, Review.ReviewType type, int days) {
+        if (days < 1 || days > MAX_TREND_DAYS) {
+            throw new RuntimeException("days must be between 1 and " + MAX_TREND_DAYS);
+        }
+
+        Criteria filter = Criteria.where("reviewedId").is(userId);
+        if (type != null) {
+            filter = filter.and("type").is(type);
+        }
+
+        Map<String, Long> distribution = new HashMap<>();
+        if (type == null) {
+            ratingSummaryRepository.findById(userId)
+                    .ifPresent(summary -> distribution.putAll(summary.getHistogram()));
+        } else {
+            Aggregation byStar = Aggregation.newAggregation(
+                    Aggregation.match(filter),
+                    Aggregation.group("rating").count().as("count"));
+            for (Document row : mongoTemplate.aggregate(byStar, Review.class, Document.class)) {
+                distribution.put(String.valueOf(row.get("_id")), ((Number) row.get("count")).longValue());
+            }
+        }
+
+        long count = 0;
+        long sum = 0;
+        for (Map.Entry<String, Long> entry : distribution.entrySet()) {
+            count += entry.getValue();
+            sum += Long.parseLong(entry.getKey()) * entry.getValue();
+        }
+
+        Aggregation byDay = Aggregation.newAggregation(
+                Aggregation.match(filter),
+                Aggregation.match(Criteria.where("createdAt").gte(LocalDateTime.now().minusDays(days))),
+                Aggregation.project("rating")
+                        .and(DateOperators.DateToString.dateOf("createdAt").toString("%Y-%m-%d")).as("day"),
+                Aggregation.group("day").count().as("count").avg("rating").as("averageRating"),
+                Aggregation.sort(Sort.Direction.ASC, "_id"));
+        List<ReviewStats.TrendBucket> trend = mongoTemplate.aggregate(byDay, Review.class, Document.class)
+                .getMappedResults().stream()
+                .map(row -> new ReviewStats.TrendBucket(
+                        row.getString("_id"),
+                        ((Number) row.get("count")).longValue(),
+                        ((Number) row.get("averageRating")).doubleValue()))
+                .toList();
+
+        return new ReviewStats(userId, count, count == 0 ? 0.0 : (double) sum / count, distribution, trend);
+    }
+
+    // Keyset pagination on (createdAt, _id) descending, matching the compound indexes on Review
+    private ReviewPage feed(Criteria filter, String cursor, int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new RuntimeException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+
+        Query query = Query.query(filter);
+        if (cursor != null && !cursor.isBlank()) {
+            query.addCriteria(after(cursor));
+        }
+        query.with(Sort.by(Sort.Direction.DESC, "createdAt", "_id")).limit(limit + 1);
+
+        List<Review> reviews = mongoTemplate.find(query, Review.class);
+        if (reviews.size() <= limit) {
+            return new ReviewPage(reviews, null);
+        }
+
+        List<Review> items = reviews.subList(0, limit);
+        Review last = items.get(limit - 1);
+        return new ReviewPage(items, encodeCursor(last));
+    }
+
+    private static String encodeCursor(Review review) {
+        String raw = review.getCreatedAt() + "|" + review.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Criteria after(String cursor) {
+        LocalDateTime createdAt;
+        ObjectId id;
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", 2);
+            if (parts.length != 2) {
+                throw new IllegalArgumentException();
+            }
+            createdAt = LocalDateTime.parse(parts[0]);
+            id = new ObjectId(parts[1]);
+        } catch (IllegalArgumentException | DateTimeParseException ex) {
+            throw new RuntimeException("Invalid cursor");
+        }
+        return new Criteria().orOperator(
+                Criteria.where("createdAt").lt(createdAt),
+                Criteria.where("createdAt").is(createdAt).and("_id").lt(id));
+    }
+
+    @Override
+    public int rebuildRatingSummaries() {
+        // Read the revisions before the reviews: a summary written after this point fails its CAS
+        Query revisions = new Query();
+        revisions.fields().include("revision", "pending", "updatedAt");
+        Map<String, RatingSummary> current = new HashMap<>();
+        for (RatingSummary summary : mongoTemplate.find(revisions, RatingSummary.class)) {
+            current.put(summary.getUserId(), summary);
+        }
+
+        int rebuilt = 0;
+        for (RatingSummary summary : aggregateSummaries(null).values()) {
+            if (replaceSummary(summary, current.get(summary.getUserId())) || rebuildSummary(summary.getUserId())) {
+                rebuilt++;
+            }
+        }
+        return rebuilt;
+    }
+
+    private boolean rebuildSummary(String userId) {
+        for (int attempt = 0; attempt < REBUILD_ATTEMPTS; attempt++) {
+            RatingSummary current = mongoTemplate.findById(userId, RatingSummary.class);
+            RatingSummary summary = aggregateSummaries(userId).get(userId);
+            if (summary == null || replaceSummary(summary, current)) {
+                return summary != null;
+            }
+        }
+        log.warn("Rating summary for user {} kept changing, left as is", userId);
+        return false;
+    }
+
+    private boolean replaceSummary(RatingSummary summary, RatingSummary current) {
+        if (current != null && current.getPending() > 0
+                && current.getUpdatedAt().isAfter(LocalDateTime.now().minus(STALE_PENDING))) {
+            return false;
+        }
+
+        // Revision 0 is a summary written before revisions existed
+        Criteria criteria = Criteria.where("_id").is(summary.getUserId());
+        criteria = current == null || current.getRevision() == 0
+                ? criteria.and("revision").exists(false)
+                : criteria.and("revision").is(current.getRevision());
+
+        RatingSummary replaced;
+        try {
+            replaced = mongoTemplate.findAndModify(
+                    Query.query(criteria),
+                    revise(new Update()
+                            .set("sum", summary.getSum())
+                            .set("count", summary.getCount())
+                            .set("histogram", summary.getHistogram())
+                            .set("pending", 0)),
+                    FindAndModifyOptions.options().returnNew(true).upsert(true),
+                    RatingSummary.class);
+        } catch (DuplicateKeyException ex) {
+            // The summary changed since it was read, so the upsert tried to insert a second one
+            return false;
+        }
+        authServiceClient.syncRating(replaced);
+        return true;
+    }
+
+    private Map<String, RatingSummary> aggregateSummaries(String userId) {
+        Aggregation aggregation = userId == null
+                ? Aggregation.newAggregation(
+                        Aggregation.group("reviewedId", "rating").count().as("count"))
+                : Aggregation.newAggregation(
+                        Aggregation.match(Criteria.where("reviewedId").is(userId)),
+                        Aggregation.group("reviewedId", "rating").count().as("count"));
+
+        Map<String, RatingSummary> summaries = new HashMap<>();
+        for (Document row : mongoTemplate.aggregate(aggregation, Review.class, Document.class)) {
+            Document key = row.get("_id", Document.class);
+            String reviewedId = key.getString("reviewedId");
+            Integer rating = key.getInteger("rating");
+            if (reviewedId == null || rating == null) {
+                continue;
+            }
+            long count = ((Number) row.get("count")).longValue();
+
+            RatingSummary summary = summaries.computeIfAbsent(reviewedId, id -> {
+                RatingSummary s = new RatingSummary();
+                s.setUserId(id);
+                return s;
+            });
+            summary.setSum(summary.getSum() + rating * count);
+            summary.setCount(summary.getCount() + count);
+            summary.getHistogram().merge(String.valueOf(rating), count, Long::sum);
+        }
+        return summaries;
+    }
+
+    private static Update revise(Update update) {
+        return update.inc("revision", 1).set("updatedAt", LocalDateTime.now());
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.review.controller;
+
+import com.example.review.dto.RatingAverage;
+import com.example.review.service.ReviewService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.List;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class ReviewControllerTest {
+
+    private ReviewService reviewService;
+    private ReviewController controller;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        reviewService = mock(ReviewService.class);
+        controller = new ReviewController(reviewService);
+        mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+    }
+
+    @Test
+    void batchAveragesTakeIdsFromTheJsonBody() throws Exception {
+        when(reviewService.getAverageRatings(List.of("u1", "u2")))
+                .thenReturn(List.of(new RatingAverage("u1", 4.5, 2), new RatingAverage("u2", 0.0, 0)));
+
+        mockMvc.perform(post("/api/reviews/users/average")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[\"u1\",\"u2\"]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].userId").value("u1"))
+                .andExpect(jsonPath("$[0].averageRating").value(4.5))
+                .andExpect(jsonPath("$[1].count").value(0));
+    }
+
+    @Test
+    void batchAveragesRejectOversizedBatches() throws Exception {
+        when(reviewService.getAverageRatings(List.of("u1")))
+                .thenThrow(new RuntimeException("At most 500 user ids per request"));
+
+        mockMvc.perform(post("/api/reviews/users/average")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[\"u1\"]"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("At most 500 user ids per request"));
+    }
+
+    @Test
+    void rebuildRequiresTheAdminToken() throws Exception {
+        ReflectionTestUtils.setField(controller, "adminToken", "s3cret");
+
+        mockMvc.perform(post("/api/reviews/ratings/rebuild"))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(post("/api/reviews/ratings/rebuild").header("X-Admin-Token", "guess"))
+                .andExpect(status().isForbidden());
+        verify(reviewService, never()).rebuildRatingSummaries();
+
+        when(reviewService.rebuildRatingSummaries()).thenReturn(3);
+        mockMvc.perform(post("/api/reviews/ratings/rebuild").header("X-Admin-Token", "s3cret"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.users").value(3));
+    }
+
+    @Test
+    void rebuildIsDisabledWithoutAConfiguredToken() throws Exception {
+        mockMvc.perform(post("/api/reviews/ratings/rebuild").header("X-Admin-Token", ""))
+                .andExpect(status().isForbidden());
+        verify(reviewService, never()).rebuildRatingSummaries();
+    }
+
+    @Test
+    void batchAveragesAreNotServedOverGet() throws Exception {
+        mockMvc.perform(get("/api/reviews/users/average").param("ids", "u1"))
+                .andExpect(status().isMethodNotAllowed());
+    }
+}
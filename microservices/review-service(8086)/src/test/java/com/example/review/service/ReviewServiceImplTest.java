@@ -0,0 +1,358 @@
+package com.example.review.service;
+
+import com.example.review.client.AuthServiceClient;
+import com.example.review.controller.ReviewController;
+import com.example.review.dto.CreateReviewRequest;
+import com.example.review.dto.ReviewPage;
+import com.example.review.dto.ReviewStats;
+import com.example.review.entities.RatingSummary;
+import com.example.review.entities.Review;
+import com.example.review.repository.RatingSummaryRepository;
+import com.example.review.repository.ReviewRepository;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.repository.support.MongoRepositoryFactory;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class ReviewServiceImplTest {
+
+    private static MongoServer server;
+    private static MongoClient client;
+    private static MongoTemplate mongoTemplate;
+
+    private AuthServiceClient authServiceClient;
+    private ReviewServiceImpl service;
+
+    @BeforeAll
+    static void connect() {
+        server = new MongoServer(new MemoryBackend());
+        client = MongoClients.create(server.bindAndGetConnectionString());
+        mongoTemplate = new MongoTemplate(client, "review_test");
+    }
+
+    @AfterAll
+    static void disconnect() {
+        client.close();
+        server.shutdown();
+    }
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate.getDb().drop();
+        authServiceClient = mock(AuthServiceClient.class);
+        service = service(mongoTemplate);
+    }
+
+    @Test
+    void createdReviewsAreAddedToTheSummaryAndHistogram() {
+        service.createReview(request("u1", 5));
+        service.createReview(request("u1", 5));
+        service.createReview(request("u1", 3));
+
+        RatingSummary summary = mongoTemplate.findById("u1", RatingSummary.class);
+        assertThat(summary.getSum()).isEqualTo(13);
+        assertThat(summary.getCount()).isEqualTo(3);
+        assertThat(summary.getHistogram()).isEqualTo(Map.of("5", 2L, "3", 1L));
+        assertThat(summary.getPending()).isZero();
+
+        ArgumentCaptor<RatingSummary> synced = ArgumentCaptor.forClass(RatingSummary.class);
+        verify(authServiceClient, times(3)).syncRating(synced.capture());
+        assertThat(synced.getAllValues()).extracting(RatingSummary::getRevision).isSorted().doesNotHaveDuplicates();
+        assertThat(synced.getValue().getCount()).isEqualTo(3);
+    }
+
+    @Test
+    void rebuildRepairsADriftedSummary() {
+        saveReview("u1", 4);
+        saveReview("u1", 2);
+        RatingSummary drifted = summary("u1", 40, 10, 7);
+        drifted.setHistogram(Map.of("4", 10L));
+        mongoTemplate.save(drifted);
+
+        assertThat(service.rebuildRatingSummaries()).isEqualTo(1);
+
+        RatingSummary summary = mongoTemplate.findById("u1", RatingSummary.class);
+        assertThat(summary.getSum()).isEqualTo(6);
+        assertThat(summary.getCount()).isEqualTo(2);
+        assertThat(summary.getHistogram()).isEqualTo(Map.of("4", 1L, "2", 1L));
+        assertThat(summary.getRevision()).isEqualTo(8);
+
+        // A lower count still reaches authentication-service, because it carries a newer revision
+        ArgumentCaptor<RatingSummary> synced = ArgumentCaptor.forClass(RatingSummary.class);
+        verify(authServiceClient).syncRating(synced.capture());
+        assertThat(synced.getValue().getCount()).isEqualTo(2);
+        assertThat(synced.getValue().getRevision()).isEqualTo(8);
+    }
+
+    @Test
+    void reviewCreatedDuringARebuildIsCountedOnce() {
+        saveReview("u1", 4);
+        service.createReview(request("u1", 4));
+
+        // The review lands after the rebuild read the revisions but before it aggregates
+        MongoTemplate racing = spy(mongoTemplate);
+        AtomicBoolean raced = new AtomicBoolean();
+        doAnswer(invocation -> {
+            if (raced.compareAndSet(false, true)) {
+                service.createReview(request("u1", 1));
+            }
+            return invocation.callRealMethod();
+        }).when(racing).aggregate(any(Aggregation.class), eq(Review.class), eq(Document.class));
+
+        service(racing).rebuildRatingSummaries();
+
+        RatingSummary summary = mongoTemplate.findById("u1", RatingSummary.class);
+        assertThat(summary.getCount()).isEqualTo(3);
+        assertThat(summary.getSum()).isEqualTo(9);
+        assertThat(summary.getHistogram()).isEqualTo(Map.of("4", 2L, "1", 1L));
+    }
+
+    @Test
+    void rebuildLeavesASummaryWithAReviewInFlight() {
+        saveReview("u1", 5);
+        saveReview("u1", 5);
+        // The second review is saved but its increment has not landed yet
+        RatingSummary inFlight = summary("u1", 5, 1, 3);
+        inFlight.setPending(1);
+        mongoTemplate.save(inFlight);
+
+        assertThat(service.rebuildRatingSummaries()).isZero();
+
+        RatingSummary summary = mongoTemplate.findById("u1", RatingSummary.class);
+        assertThat(summary.getCount()).isEqualTo(1);
+        assertThat(summary.getRevision()).isEqualTo(3);
+        verify(authServiceClient, never()).syncRating(any());
+    }
+
+    @Test
+    void rebuildClearsAMarkerLeftByAnAbandonedReview() {
+        saveReview("u1", 5);
+        RatingSummary abandoned = summary("u1", 0, 0, 1);
+        abandoned.setPending(1);
+        abandoned.setUpdatedAt(LocalDateTime.now().minusMinutes(5));
+        mongoTemplate.save(abandoned);
+
+        assertThat(service.rebuildRatingSummaries()).isEqualTo(1);
+
+        RatingSummary summary = mongoTemplate.findById("u1", RatingSummary.class);
+        assertThat(summary.getCount()).isEqualTo(1);
+        assertThat(summary.getPending()).isZero();
+    }
+
+    @Test
+    void feedPagesThroughEveryReviewOnceAcrossDuplicateTimestamps() {
+        LocalDateTime base = LocalDateTime.of(2026, 3, 1, 12, 0);
+        for (int i = 0; i < 25; i++) {
+            // Groups of three share a createdAt, and some groups straddle page boundaries
+            saveReview("u1", Review.ReviewType.DRIVER, 5, base.minusMinutes(i / 3));
+        }
+        saveReview("u2", Review.ReviewType.DRIVER, 5, base);
+
+        List<List<Review>> pages = new ArrayList<>();
+        String cursor = null;
+        do {
+            ReviewPage page = service.getReviewFeedForUser("u1", null, cursor, 10);
+            pages.add(page.items());
+            cursor = page.nextCursor();
+        } while (cursor != null);
+
+        assertThat(pages).extracting(List::size).containsExactly(10, 10, 5);
+        List<Review> all = pages.stream().flatMap(List::stream).toList();
+        assertThat(all).extracting(Review::getId).doesNotHaveDuplicates();
+        assertThat(all).extracting(Review::getReviewedId).containsOnly("u1");
+        assertThat(all).isSortedAccordingTo(Comparator.comparing(Review::getCreatedAt)
+                .thenComparing(review -> new ObjectId(review.getId()))
+                .reversed());
+    }
+
+    @Test
+    void fullLastPageHasNoCursor() {
+        LocalDateTime base = LocalDateTime.of(2026, 3, 1, 12, 0);
+        for (int i = 0; i < 20; i++) {
+            saveReview("u1", Review.ReviewType.DRIVER, 5, base.minusMinutes(i));
+        }
+
+        ReviewPage first = service.getReviewFeedForUser("u1", null, null, 10);
+        ReviewPage second = service.getReviewFeedForUser("u1", null, first.nextCursor(), 10);
+
+        assertThat(first.nextCursor()).isNotNull();
+        assertThat(second.items()).hasSize(10);
+        assertThat(second.nextCursor()).isNull();
+    }
+
+    @Test
+    void reviewsWithTheSameTimestampArePagedByIdDescending() {
+        LocalDateTime createdAt = LocalDateTime.of(2026, 3, 1, 12, 0);
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            ids.add(saveReview("u1", Review.ReviewType.DRIVER, 5, createdAt).getId());
+        }
+
+        ReviewPage first = service.getReviewFeedForRide("ride", null, 2);
+        ReviewPage second = service.getReviewFeedForRide("ride", first.nextCursor(), 2);
+        ReviewPage third = service.getReviewFeedForRide("ride", second.nextCursor(), 2);
+
+        assertThat(first.items()).extracting(Review::getId).containsExactly(ids.get(4), ids.get(3));
+        assertThat(second.items()).extracting(Review::getId).containsExactly(ids.get(2), ids.get(1));
+        assertThat(third.items()).extracting(Review::getId).containsExactly(ids.get(0));
+        assertThat(third.nextCursor()).isNull();
+    }
+
+    @Test
+    void typeFilterAppliesAcrossPages() {
+        LocalDateTime base = LocalDateTime.of(2026, 3, 1, 12, 0);
+        for (int i = 0; i < 6; i++) {
+            saveReview("u1", i % 2 == 0 ? Review.ReviewType.DRIVER : Review.ReviewType.PASSENGER, 5, base.minusMinutes(i));
+        }
+
+        ReviewPage first = service.getReviewFeedForUser("u1", Review.ReviewType.PASSENGER, null, 2);
+        ReviewPage second = service.getReviewFeedForUser("u1", Review.ReviewType.PASSENGER, first.nextCursor(), 2);
+
+        assertThat(first.items()).hasSize(2);
+        assertThat(second.items()).hasSize(1);
+        assertThat(second.nextCursor()).isNull();
+        assertThat(Stream.concat(first.items().stream(), second.items().stream()))
+                .extracting(Review::getType).containsOnly(Review.ReviewType.PASSENGER);
+    }
+
+    @Test
+    void malformedCursorsAreRejected() {
+        String notTwoParts = Base64.getUrlEncoder().encodeToString("garbage".getBytes(StandardCharsets.UTF_8));
+        String badDate = Base64.getUrlEncoder().encodeToString(
+                ("yesterday|" + new ObjectId().toHexString()).getBytes(StandardCharsets.UTF_8));
+        String badId = Base64.getUrlEncoder().encodeToString("2026-03-01T12:00|xyz".getBytes(StandardCharsets.UTF_8));
+
+        for (String cursor : List.of("not base64!", notTwoParts, badDate, badId)) {
+            assertThatThrownBy(() -> service.getReviewFeedForUser("u1", null, cursor, 10))
+                    .isInstanceOf(RuntimeException.class)
+                    .hasMessage("Invalid cursor");
+        }
+    }
+
+    @Test
+    void malformedCursorIsABadRequest() throws Exception {
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new ReviewController(service)).build();
+
+        mockMvc.perform(get("/api/reviews/user/u1/feed").param("cursor", "not base64!"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Invalid cursor"));
+    }
+
+    @Test
+    void typeFilteredStatsCountOnlyThatType() {
+        LocalDateTime now = LocalDateTime.now();
+        saveReview("u1", Review.ReviewType.DRIVER, 5, now);
+        saveReview("u1", Review.ReviewType.DRIVER, 4, now);
+        saveReview("u1", Review.ReviewType.DRIVER, 3, now.minusDays(2));
+        saveReview("u1", Review.ReviewType.DRIVER, 1, now.minusDays(40));
+        saveReview("u1", Review.ReviewType.PASSENGER, 1, now);
+
+        ReviewStats stats = service.getReviewStats("u1", Review.ReviewType.DRIVER, 30);
+
+        assertThat(stats.count()).isEqualTo(4);
+        assertThat(stats.averageRating()).isEqualTo(13 / 4.0);
+        assertThat(stats.distribution()).isEqualTo(Map.of("5", 1L, "4", 1L, "3", 1L, "1", 1L));
+        // The review from 40 days ago is outside the window; days are bucketed in UTC
+        assertThat(stats.trend()).containsExactly(
+                new ReviewStats.TrendBucket(utcDay(now.minusDays(2)), 1, 3.0),
+                new ReviewStats.TrendBucket(utcDay(now), 2, 4.5));
+    }
+
+    @Test
+    void unfilteredStatsUseTheSummaryHistogram() {
+        service.createReview(request("u1", 5));
+        service.createReview(request("u1", 2));
+
+        ReviewStats stats = service.getReviewStats("u1", null, 7);
+
+        assertThat(stats.count()).isEqualTo(2);
+        assertThat(stats.averageRating()).isEqualTo(3.5);
+        assertThat(stats.distribution()).isEqualTo(Map.of("5", 1L, "2", 1L));
+        assertThat(stats.trend()).singleElement().satisfies(bucket -> assertThat(bucket.count()).isEqualTo(2));
+    }
+
+    private ReviewServiceImpl service(MongoTemplate template) {
+        MongoRepositoryFactory repositories = new MongoRepositoryFactory(template);
+        return new ReviewServiceImpl(
+                repositories.getRepository(ReviewRepository.class),
+                repositories.getRepository(RatingSummaryRepository.class),
+                template,
+                authServiceClient);
+    }
+
+    private static void saveReview(String reviewedId, int rating) {
+        saveReview(reviewedId, Review.ReviewType.DRIVER, rating, LocalDateTime.now());
+    }
+
+    private static Review saveReview(String reviewedId, Review.ReviewType type, int rating, LocalDateTime createdAt) {
+        Review review = new Review();
+        review.setReviewerId("reviewer");
+        review.setReviewedId(reviewedId);
+        review.setRideId("ride");
+        review.setRating(rating);
+        review.setType(type);
+        review.setCreatedAt(createdAt);
+        return mongoTemplate.save(review);
+    }
+
+    private static String utcDay(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).withZoneSameInstant(ZoneOffset.UTC).toLocalDate().toString();
+    }
+
+    private static RatingSummary summary(String userId, long sum, long count, long revision) {
+        RatingSummary summary = new RatingSummary();
+        summary.setUserId(userId);
+        summary.setSum(sum);
+        summary.setCount(count);
+        summary.setRevision(revision);
+        summary.setUpdatedAt(LocalDateTime.now());
+        return summary;
+    }
+
+    private static CreateReviewRequest request(String reviewedId, int rating) {
+        CreateReviewRequest request = new CreateReviewRequest();
+        request.setReviewerId("reviewer");
+        request.setReviewedId(reviewedId);
+        request.setRating(rating);
+        request.setType(Review.ReviewType.DRIVER);
+        return request;
+    }
+}
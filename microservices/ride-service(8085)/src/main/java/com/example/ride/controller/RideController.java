@@ -3,12 +3,14 @@ package com.example.ride.controller;
 import com.example.ride.dto.CreateRideRequest;
 import com.example.ride.dto.ModifyRideRequest;
 import com.example.ride.entities.Ride;
+import com.example.commons.web.ConditionalGet;
 import com.example.ride.service.RideService;
 import lombok.RequiredArgsConstructor;
 
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -39,6 +41,15 @@ public class RideController {
     }
 
 
+    @PutMapping("/{rideId}/cancel")
+    public ResponseEntity<?> cancelRide(@PathVariable String rideId, @RequestParam String driverId) {
+        try {
+            return ResponseEntity.ok(rideService.cancelRide(rideId, driverId));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
     @DeleteMapping("/{rideId}")
     public Map<String, String> deleteRide(@PathVariable String rideId, @RequestParam String driverId) {
         rideService.deleteRide(rideId, driverId);
@@ -65,7 +76,10 @@ public class RideController {
     }
 
     @GetMapping("/{rideId}")
-    public Ride getRideById(@PathVariable String rideId) {
+    public Ride getRideById(@PathVariable String rideId, WebRequest request) {
+        if (ConditionalGet.notModified(request, rideService.getRideLastModified(rideId))) {
+            return null;
+        }
         return rideService.getRideById(rideId);
     }
 }
\ No newline at end of file
@@ -1,19 +1,25 @@
 package com.example.ride.entities;
 
 import com.example.ride.enums.RideStatus;
+import com.example.commons.outbox.OutboxEvent;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
 @Document(collection = "rides")
+@CompoundIndex(name = "pending_events", def = "{'pendingEvents.occurredAt': 1}")
 public class Ride {
 
     @Id
@@ -33,4 +39,8 @@ public class Ride {
 
     private LocalDateTime createdAt = LocalDateTime.now();
     private LocalDateTime updatedAt;
+
+    // Domain events not yet relayed, written together with the state change
+    @JsonIgnore
+    private List<OutboxEvent> pendingEvents = new ArrayList<>();
 }
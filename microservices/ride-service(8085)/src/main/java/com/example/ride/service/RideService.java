@@ -5,14 +5,17 @@ import com.example.ride.dto.ModifyRideRequest;
 import com.example.ride.entities.Ride;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface RideService {
     Ride createRide(CreateRideRequest request);
     Ride modifyRide(String rideId, ModifyRideRequest request);
     void deleteRide(String rideId, String driverId);
+    Ride cancelRide(String rideId, String driverId);
     List<Ride> getRidesByDriver(String driverId);
     List<Ride> searchRides(String departureCity, String destinationCity, LocalDate date);
     List<Ride> getAllRides();
     Ride getRideById(String rideId);
+    LocalDateTime getRideLastModified(String rideId);
 }
\ No newline at end of file
@@ -5,12 +5,20 @@ import com.example.ride.dto.ModifyRideRequest;
 import com.example.ride.entities.Ride;
 import com.example.ride.enums.RideStatus;
 import com.example.ride.repository.RideRepository;
+import com.example.commons.outbox.OutboxEvent;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -18,6 +26,7 @@ import java.util.stream.Collectors;
 public class RideServiceImpl implements RideService {
 
     private final RideRepository rideRepository;
+    private final MongoTemplate mongoTemplate;
 
     @Override
     public Ride createRide(CreateRideRequest request) {
@@ -36,31 +45,69 @@ public class RideServiceImpl implements RideService {
 
     @Override
     public Ride modifyRide(String rideId, ModifyRideRequest request) {
+        // Only the given fields are set, so pendingEvents appended concurrently (cancelRide) survive
+        Update update = new Update().set("updatedAt", LocalDateTime.now());
+        if (request.getDepartureCity() != null) update.set("departureCity", request.getDepartureCity());
+        if (request.getDestinationCity() != null) update.set("destinationCity", request.getDestinationCity());
+        if (request.getDepartureDate() != null) update.set("departureDate", request.getDepartureDate());
+        if (request.getAvailableSeats() != null) update.set("availableSeats", request.getAvailableSeats());
+        if (request.getTotalSeats() != null) update.set("totalSeats", request.getTotalSeats());
+        if (request.getPricePerSeat() != null) update.set("pricePerSeat", request.getPricePerSeat());
+
+        Ride ride = mongoTemplate.findAndModify(
+                Query.query(Criteria.where("_id").is(rideId)),
+                update,
+                FindAndModifyOptions.options().returnNew(true),
+                Ride.class);
+        if (ride == null) {
+            throw new RuntimeException("Ride not found");
+        }
+        return ride;
+    }
+
+    @Override
+    public void deleteRide(String rideId, String driverId) {
         Ride ride = rideRepository.findById(rideId)
                 .orElseThrow(() -> new RuntimeException("Ride not found"));
 
-        if (request.getDepartureCity() != null) ride.setDepartureCity(request.getDepartureCity());
-        if (request.getDestinationCity() != null) ride.setDestinationCity(request.getDestinationCity());
-        if (request.getDepartureDate() != null) ride.setDepartureDate(request.getDepartureDate());
-        if (request.getAvailableSeats() != null) ride.setAvailableSeats(request.getAvailableSeats());
-        if (request.getTotalSeats() != null) ride.setTotalSeats(request.getTotalSeats());
-        if (request.getPricePerSeat() != null) ride.setPricePerSeat(request.getPricePerSeat());
-
-        ride.setUpdatedAt(LocalDateTime.now());
+        if (!ride.getDriverId().equals(driverId)) {
+            throw new RuntimeException("You cannot delete someone else's ride");
+        }
 
-        return rideRepository.save(ride);
+        rideRepository.delete(ride);
     }
 
     @Override
-    public void deleteRide(String rideId, String driverId) {
+    public Ride cancelRide(String rideId, String driverId) {
         Ride ride = rideRepository.findById(rideId)
                 .orElseThrow(() -> new RuntimeException("Ride not found"));
 
         if (!ride.getDriverId().equals(driverId)) {
-            throw new RuntimeException("You cannot delete someone else's ride");
+            throw new RuntimeException("You cannot cancel someone else's ride");
+        }
+        if (ride.getStatus() != RideStatus.SCHEDULED) {
+            throw new RuntimeException("Only scheduled rides can be cancelled");
         }
 
-        rideRepository.delete(ride);
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("driverId", ride.getDriverId());
+        payload.put("departureCity", ride.getDepartureCity() != null ? ride.getDepartureCity().getName() : null);
+        payload.put("destinationCity", ride.getDestinationCity() != null ? ride.getDestinationCity().getName() : null);
+        payload.put("departureDate", ride.getDepartureDate() != null ? ride.getDepartureDate().toString() : null);
+
+        // Status and RideCancelled are written together; the status guard keeps a concurrent cancel from emitting twice
+        Ride cancelled = mongoTemplate.findAndModify(
+                Query.query(Criteria.where("_id").is(rideId).and("status").is(RideStatus.SCHEDULED)),
+                new Update()
+                        .set("status", RideStatus.CANCELED)
+                        .set("updatedAt", LocalDateTime.now())
+                        .push("pendingEvents", OutboxEvent.of("RideCancelled", payload)),
+                FindAndModifyOptions.options().returnNew(true),
+                Ride.class);
+        if (cancelled == null) {
+            throw new RuntimeException("Only scheduled rides can be cancelled");
+        }
+        return cancelled;
     }
 
     @Override
@@ -103,4 +150,16 @@ public class RideServiceImpl implements RideService {
         return rideRepository.findById(rideId)
                 .orElseThrow(() -> new RuntimeException("Ride not found"));
     }
+
+    // Reads only the timestamps, so a conditional GET that ends in 304 never loads the ride
+    @Override
+    public LocalDateTime getRideLastModified(String rideId) {
+        Query query = Query.query(Criteria.where("_id").is(rideId));
+        query.fields().include("updatedAt", "createdAt");
+        Ride ride = mongoTemplate.findOne(query, Ride.class);
+        if (ride == null) {
+            throw new RuntimeException("Ride not found");
+        }
+        return ride.getUpdatedAt() != null ? ride.getUpdatedAt() : ride.getCreatedAt();
+    }
 }
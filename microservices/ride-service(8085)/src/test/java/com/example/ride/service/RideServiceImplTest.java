@@ -0,0 +1,84 @@
+package com.example.ride.service;
+
+import com.example.ride.dto.ModifyRideRequest;
+import com.example.ride.entities.City;
+import com.example.ride.entities.Ride;
+import com.example.ride.enums.RideStatus;
+import com.example.ride.repository.RideRepository;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RideServiceImplTest {
+
+    private static MongoServer server;
+    private static MongoClient client;
+    private static MongoTemplate mongoTemplate;
+
+    private RideRepository rideRepository;
+    private RideServiceImpl service;
+
+    @BeforeAll
+    static void connect() {
+        server = new MongoServer(new MemoryBackend());
+        client = MongoClients.create(server.bindAndGetConnectionString());
+        mongoTemplate = new MongoTemplate(client, "ride_test");
+    }
+
+    @AfterAll
+    static void disconnect() {
+        client.close();
+        server.shutdown();
+    }
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate.getDb().drop();
+        rideRepository = mock(RideRepository.class);
+        service = new RideServiceImpl(rideRepository, mongoTemplate);
+    }
+
+    @Test
+    void modifyKeepsAnEventAppendedSinceTheRideWasRead() {
+        Ride ride = new Ride();
+        ride.setId("r1");
+        ride.setDriverId("d1");
+        ride.setDepartureCity(new City("Tunis", "1000"));
+        ride.setDepartureDate(LocalDate.now().plusDays(1));
+        ride.setPricePerSeat(10.0);
+        mongoTemplate.insert(ride);
+        when(rideRepository.findById("r1")).thenReturn(Optional.of(ride));
+
+        service.cancelRide("r1", "d1");
+        ModifyRideRequest request = new ModifyRideRequest();
+        request.setPricePerSeat(12.5);
+        Ride modified = service.modifyRide("r1", request);
+
+        assertThat(modified.getPricePerSeat()).isEqualTo(12.5);
+        assertThat(modified.getDepartureCity().getName()).isEqualTo("Tunis");
+        Ride stored = mongoTemplate.findById("r1", Ride.class);
+        assertThat(stored.getStatus()).isEqualTo(RideStatus.CANCELED);
+        assertThat(stored.getPendingEvents()).singleElement()
+                .satisfies(event -> assertThat(event.getType()).isEqualTo("RideCancelled"));
+    }
+
+    @Test
+    void modifyingAMissingRideFails() {
+        assertThatThrownBy(() -> service.modifyRide("missing", new ModifyRideRequest()))
+                .hasMessage("Ride not found");
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.commons.concurrency;
+
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Puts {@link AdaptiveConcurrencyFilter} in front of controller dispatch in every
+ * servlet service. The gateway is reactive and is left alone.
+ */
+@AutoConfiguration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(prefix = "commons.concurrency-limit", name = "enabled", matchIfMissing = true)
+@EnableConfigurationProperties(ConcurrencyLimitProperties.class)
+public class AdaptiveConcurrencyAutoConfiguration {
+
+    @Bean
+    public AdaptiveConcurrencyLimiter adaptiveConcurrencyLimiter(ConcurrencyLimitProperties properties) {
+        return new AdaptiveConcurrencyLimiter(properties);
+    }
+
+    // Runs after the observation filter so shed requests still show up in http.server.requests
+    @Bean
+    public FilterRegistrationBean<AdaptiveConcurrencyFilter> adaptiveConcurrencyFilter(
+            AdaptiveConcurrencyLimiter limiter, ConcurrencyLimitProperties properties) {
+        FilterRegistrationBean<AdaptiveConcurrencyFilter> registration =
+                new FilterRegistrationBean<>(new AdaptiveConcurrencyFilter(limiter, properties));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(MeterBinder.class)
+    static class MetricsConfiguration {
+
+        @Bean
+        public ConcurrencyLimitMetrics concurrencyLimitMetrics(AdaptiveConcurrencyLimiter limiter) {
+            return new ConcurrencyLimitMetrics(limiter);
+        }
+    }
+}
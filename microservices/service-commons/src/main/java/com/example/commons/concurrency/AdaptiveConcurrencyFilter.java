@@ -0,0 +1,79 @@
+package com.example.commons.concurrency;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Admits a request only while the number in flight is under the adaptive limit, and
+ * answers the rest with 503 straight away instead of letting them queue for a Tomcat
+ * thread. Non-critical requests are cut off earlier, leaving headroom for the
+ * endpoints listed in {@code commons.concurrency-limit.critical}.
+ */
+public class AdaptiveConcurrencyFilter extends OncePerRequestFilter {
+
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final List<Rule> critical;
+    private final List<String> exclude;
+    private final long retryAfterSeconds;
+    private final AntPathMatcher matcher = new AntPathMatcher();
+
+    public AdaptiveConcurrencyFilter(AdaptiveConcurrencyLimiter limiter, ConcurrencyLimitProperties properties) {
+        this.limiter = limiter;
+        this.critical = properties.getCritical().stream().map(Rule::parse).toList();
+        this.exclude = List.copyOf(properties.getExclude());
+        this.retryAfterSeconds = Math.max(1, properties.getRetryAfter().toSeconds());
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        return exclude.stream().anyMatch(pattern -> matcher.match(pattern, path));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (!limiter.tryAcquire(isCritical(request))) {
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getWriter().write("{\"error\":\"Service is overloaded, try again shortly\"}");
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            limiter.release(System.nanoTime() - start, !request.isAsyncStarted());
+        }
+    }
+
+    private boolean isCritical(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        for (Rule rule : critical) {
+            if ((rule.method() == null || rule.method().equalsIgnoreCase(request.getMethod()))
+                    && matcher.match(rule.pattern(), path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private record Rule(String method, String pattern) {
+
+        static Rule parse(String value) {
+            String[] parts = value.trim().split("\\s+", 2);
+            return parts.length == 2 ? new Rule(parts[0], parts[1]) : new Rule(null, parts[0]);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.commons.concurrency;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Concurrency limit driven by the latency gradient: a slow moving average of response
+ * time is the baseline, a fast one is the current latency. While the two agree the
+ * limit grows by roughly its square root per sample; once requests start queueing the
+ * current latency rises and the limit is scaled down by baseline / current.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private static final double SHORT_WINDOW = 10;
+    private static final double LONG_WINDOW = 600;
+    private static final int WARMUP_SAMPLES = 10;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final double smoothing;
+    private final double nonCriticalShare;
+
+    private final AtomicInteger inflight = new AtomicInteger();
+    private final AtomicLong rejectedCritical = new AtomicLong();
+    private final AtomicLong rejectedNonCritical = new AtomicLong();
+
+    private volatile int currentLimit;
+    private double estimatedLimit;
+    private double shortRttNanos;
+    private double longRttNanos;
+    private long samples;
+
+    public AdaptiveConcurrencyLimiter(ConcurrencyLimitProperties properties) {
+        this.minLimit = properties.getMinLimit();
+        this.maxLimit = properties.getMaxLimit();
+        this.tolerance = properties.getTolerance();
+        this.smoothing = properties.getSmoothing();
+        this.nonCriticalShare = properties.getNonCriticalShare();
+        this.estimatedLimit = Math.max(minLimit, Math.min(maxLimit, properties.getInitialLimit()));
+        this.currentLimit = (int) estimatedLimit;
+    }
+
+    public boolean tryAcquire(boolean critical) {
+        int allowed = critical ? currentLimit : Math.max(1, (int) (currentLimit * nonCriticalShare));
+        while (true) {
+            int current = inflight.get();
+            if (current >= allowed) {
+                (critical ? rejectedCritical : rejectedNonCritical).incrementAndGet();
+                return false;
+            }
+            if (inflight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    // Requests that went async (SSE, streaming) hold no worker thread, so their time says nothing about load
+    public void release(long rttNanos, boolean sample) {
+        int inflightAtCompletion = inflight.getAndDecrement();
+        if (sample) {
+            onSample(rttNanos, inflightAtCompletion);
+        }
+    }
+
+    private synchronized void onSample(long rttNanos, int inflightAtCompletion) {
+        samples++;
+        if (samples <= WARMUP_SAMPLES) {
+            shortRttNanos = longRttNanos = longRttNanos + (rttNanos - longRttNanos) / samples;
+            return;
+        }
+        shortRttNanos += (rttNanos - shortRttNanos) / SHORT_WINDOW;
+        longRttNanos += (rttNanos - longRttNanos) / LONG_WINDOW;
+
+        // After a sustained slowdown the baseline has crept up; let it come down quickly once latency recovers
+        if (longRttNanos / shortRttNanos > 2) {
+            longRttNanos *= 0.95;
+        }
+
+        // Far below the limit latency is not telling us anything about how much more we could take
+        if (inflightAtCompletion < estimatedLimit / 2) {
+            return;
+        }
+
+        double gradient = Math.max(0.5, Math.min(1.0, tolerance * longRttNanos / shortRttNanos));
+        double newLimit = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+        newLimit = estimatedLimit * (1 - smoothing) + newLimit * smoothing;
+        estimatedLimit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+        currentLimit = (int) estimatedLimit;
+    }
+
+    public int getLimit() {
+        return currentLimit;
+    }
+
+    public int getInflight() {
+        return inflight.get();
+    }
+
+    public long getRejected(boolean critical) {
+        return critical ? rejectedCritical.get() : rejectedNonCritical.get();
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.commons.concurrency;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+
+@RequiredArgsConstructor
+public class ConcurrencyLimitMetrics implements MeterBinder {
+
+    private final AdaptiveConcurrencyLimiter limiter;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("http.server.concurrency.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                .description("Current adaptive concurrency limit")
+                .register(registry);
+        Gauge.builder("http.server.concurrency.inflight", limiter, AdaptiveConcurrencyLimiter::getInflight)
+                .description("Requests currently admitted by the concurrency limiter")
+                .register(registry);
+        FunctionCounter.builder("http.server.concurrency.rejected", limiter, l -> l.getRejected(true))
+                .description("Requests shed with 503 by the concurrency limiter")
+                .tag("priority", "critical")
+                .register(registry);
+        FunctionCounter.builder("http.server.concurrency.rejected", limiter, l -> l.getRejected(false))
+                .description("Requests shed with 503 by the concurrency limiter")
+                .tag("priority", "normal")
+                .register(registry);
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.commons.concurrency;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "commons.concurrency-limit")
+public class ConcurrencyLimitProperties {
+
+    private boolean enabled = true;
+    private int initialLimit = 40;
+    private int minLimit = 8;
+    private int maxLimit = 400;
+    // How much slower than the baseline latency may get before the limit shrinks
+    private double tolerance = 2.0;
+    // Weight of each new estimate, lower values react more slowly
+    private double smoothing = 0.2;
+    // Share of the limit that non-critical requests may occupy; the rest is kept for critical ones
+    private double nonCriticalShare = 0.8;
+    // "METHOD /path/pattern" or "/path/pattern" (any method)
+    private List<String> critical = new ArrayList<>();
+    private List<String> exclude = new ArrayList<>(List.of("/actuator/**"));
+    private Duration retryAfter = Duration.ofSeconds(1);
+}
@@ -0,0 +1,297 @@
+package com.example.commons.http;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.client5.http.protocol.HttpClientContext;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Client for calls between services, addressed by Eureka service id
+ * ({@code http://ride-service/api/rides/{rideId}}). Connections are pooled and kept
+ * alive, and every call has a deadline covering all of its attempts. Idempotent calls
+ * are retried with jittered backoff on connection errors and 502/503/504, and a slow
+ * GET is hedged: a second copy goes out, usually to another instance, and whichever
+ * answers first wins.
+ *
+ * <p>Payloads travel as CBOR when {@code commons.http-client.cbor} is on (the default);
+ * JSON stays acceptable, so a service without the CBOR converter still answers.
+ *
+ * <p>Failures surface as the usual {@link RestClientException}s.
+ */
+public class ServiceHttpClient implements DisposableBean {
+
+    private static final Set<Integer> RETRYABLE_STATUSES = Set.of(502, 503, 504);
+    // Response timeout of the attempt running on the current thread, read when the request is created
+    private static final ThreadLocal<Timeout> ATTEMPT_TIMEOUT = new ThreadLocal<>();
+
+    private final ServiceHttpClientProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final CloseableHttpClient httpClient;
+    private final RestTemplate restTemplate;
+    private final ExecutorService hedgeExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public ServiceHttpClient(ServiceHttpClientProperties properties, RestTemplateBuilder builder,
+                             ClientHttpRequestInterceptor loadBalancerInterceptor, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+
+        RequestConfig defaults = RequestConfig.custom()
+                .setConnectionRequestTimeout(Timeout.of(properties.getPoolTimeout()))
+                .setResponseTimeout(Timeout.of(properties.getDeadline()))
+                .setConnectionKeepAlive(TimeValue.of(properties.getKeepAlive()))
+                .build();
+        this.httpClient = HttpClients.custom()
+                .setConnectionManager(PoolingHttpClientConnectionManagerBuilder.create()
+                        .setMaxConnTotal(properties.getMaxConnections())
+                        .setMaxConnPerRoute(properties.getMaxConnectionsPerRoute())
+                        .setDefaultConnectionConfig(ConnectionConfig.custom()
+                                .setConnectTimeout(Timeout.of(properties.getConnectTimeout()))
+                                .setTimeToLive(TimeValue.of(properties.getTimeToLive()))
+                                .setValidateAfterInactivity(TimeValue.ofSeconds(2))
+                                .build())
+                        .build())
+                .setDefaultRequestConfig(defaults)
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.of(properties.getKeepAlive()))
+                // Retries are ours, so they respect the deadline
+                .disableAutomaticRetries()
+                .build();
+
+        HttpComponentsClientHttpRequestFactory requestFactory = new HttpComponentsClientHttpRequestFactory(httpClient);
+        requestFactory.setHttpContextFactory((method, uri) -> {
+            HttpClientContext context = HttpClientContext.create();
+            Timeout timeout = ATTEMPT_TIMEOUT.get();
+            if (timeout != null) {
+                context.setRequestConfig(RequestConfig.copy(defaults).setResponseTimeout(timeout).build());
+            }
+            return context;
+        });
+        this.restTemplate = builder
+                .requestFactory(() -> requestFactory)
+                .additionalInterceptors(loadBalancerInterceptor)
+                .build();
+    }
+
+    public <T> T get(String url, Class<T> responseType, Object... uriVariables) {
+        return get(url, properties.getDeadline(), responseType, uriVariables);
+    }
+
+    public <T> T get(String url, Duration deadline, Class<T> responseType, Object... uriVariables) {
+        return execute(HttpMethod.GET, url, deadline,
+                () -> restTemplate.exchange(url, HttpMethod.GET, entity(null), responseType, uriVariables).getBody());
+    }
+
+    public <T> T post(String url, Object body, Class<T> responseType, Object... uriVariables) {
+        return post(url, body, properties.getDeadline(), responseType, uriVariables);
+    }
+
+    public <T> T post(String url, Object body, Duration deadline, Class<T> responseType, Object... uriVariables) {
+        return execute(HttpMethod.POST, url, deadline,
+                () -> restTemplate.exchange(url, HttpMethod.POST, entity(body), responseType, uriVariables).getBody());
+    }
+
+    public void put(String url, Object body, Object... uriVariables) {
+        put(url, body, properties.getDeadline(), uriVariables);
+    }
+
+    public void put(String url, Object body, Duration deadline, Object... uriVariables) {
+        execute(HttpMethod.PUT, url, deadline,
+                () -> restTemplate.exchange(url, HttpMethod.PUT, entity(body), Void.class, uriVariables).getBody());
+    }
+
+    private HttpEntity<Object> entity(Object body) {
+        HttpHeaders headers = new HttpHeaders();
+        if (properties.isCbor()) {
+            headers.setAccept(List.of(MediaType.APPLICATION_CBOR, MediaType.APPLICATION_JSON));
+            if (body != null) {
+                headers.setContentType(MediaType.APPLICATION_CBOR);
+            }
+        }
+        return new HttpEntity<>(body, headers);
+    }
+
+    private <T> T execute(HttpMethod method, String url, Duration deadline, Supplier<T> exchange) {
+        String service = serviceId(url);
+        long start = System.nanoTime();
+        long deadlineNanos = start + deadline.toNanos();
+        boolean idempotent = method != HttpMethod.POST;
+        boolean hedge = method == HttpMethod.GET && !properties.getHedgeDelay().isZero();
+        String outcome = "SUCCESS";
+        try {
+            for (int attempt = 1; ; attempt++) {
+                try {
+                    return hedge ? hedged(service, exchange, deadlineNanos) : attempt(service, exchange, deadlineNanos);
+                } catch (RestClientException ex) {
+                    long backoff = backoffNanos(attempt);
+                    if (!idempotent || attempt >= properties.getMaxAttempts() || !isRetryable(ex)
+                            || System.nanoTime() + backoff >= deadlineNanos) {
+                        throw ex;
+                    }
+                    meterRegistry.counter("service.client.retries", "service", service).increment();
+                    sleep(service, backoff);
+                }
+            }
+        } catch (RuntimeException ex) {
+            outcome = outcome(ex);
+            throw ex;
+        } finally {
+            Timer.builder("service.client.calls")
+                    .description("Calls to other services, retries and hedges included")
+                    .tags("service", service, "method", method.name(), "outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private <T> T attempt(String service, Supplier<T> exchange, long deadlineNanos) {
+        long remaining = deadlineNanos - System.nanoTime();
+        if (remaining <= 0) {
+            throw new DeadlineExceededException(service);
+        }
+        ATTEMPT_TIMEOUT.set(Timeout.ofMilliseconds(Math.max(1, TimeUnit.NANOSECONDS.toMillis(remaining))));
+        try {
+            return exchange.get();
+        } finally {
+            ATTEMPT_TIMEOUT.remove();
+        }
+    }
+
+    // An attempt that loses the race is not interrupted; its response timeout ends it by the deadline
+    private <T> T hedged(String service, Supplier<T> exchange, long deadlineNanos) {
+        CompletableFuture<T> primary = submit(service, exchange, deadlineNanos);
+        try {
+            long hedgeDelay = Math.min(properties.getHedgeDelay().toNanos(), deadlineNanos - System.nanoTime());
+            try {
+                return primary.get(Math.max(0, hedgeDelay), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException slow) {
+                if (deadlineNanos - System.nanoTime() <= 0) {
+                    throw new DeadlineExceededException(service);
+                }
+            }
+            meterRegistry.counter("service.client.hedges", "service", service).increment();
+            CompletableFuture<T> hedge = submit(service, exchange, deadlineNanos);
+            return firstSuccessful(primary, hedge)
+                    .get(Math.max(0, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException ex) {
+            throw new DeadlineExceededException(service);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new ResourceAccessException("Call to " + service + " failed: " + ex.getCause().getMessage());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new ResourceAccessException("Interrupted while calling " + service);
+        }
+    }
+
+    private <T> CompletableFuture<T> submit(String service, Supplier<T> exchange, long deadlineNanos) {
+        return CompletableFuture.supplyAsync(() -> attempt(service, exchange, deadlineNanos), hedgeExecutor);
+    }
+
+    // Completes with the first success, or with the last failure once both attempts have failed
+    private static <T> CompletableFuture<T> firstSuccessful(CompletableFuture<T> first, CompletableFuture<T> second) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        AtomicInteger failures = new AtomicInteger();
+        for (CompletableFuture<T> future : List.of(first, second)) {
+            future.whenComplete((value, ex) -> {
+                if (ex == null) {
+                    result.complete(value);
+                } else if (failures.incrementAndGet() == 2) {
+                    result.completeExceptionally(ex);
+                }
+            });
+        }
+        return result;
+    }
+
+    private static boolean isRetryable(RestClientException ex) {
+        if (ex instanceof DeadlineExceededException) {
+            return false;
+        }
+        if (ex instanceof HttpServerErrorException serverError) {
+            return RETRYABLE_STATUSES.contains(serverError.getStatusCode().value());
+        }
+        return ex instanceof ResourceAccessException;
+    }
+
+    // Exponential backoff with full jitter
+    private long backoffNanos(int attempt) {
+        long base = properties.getRetryBaseDelay().toNanos();
+        long cap = properties.getRetryMaxDelay().toNanos();
+        long ceiling = Math.min(cap, base << Math.min(attempt - 1, 20));
+        return ThreadLocalRandom.current().nextLong(base, Math.max(base, ceiling) + 1);
+    }
+
+    private static void sleep(String service, long nanos) {
+        try {
+            TimeUnit.NANOSECONDS.sleep(nanos);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new ResourceAccessException("Interrupted while calling " + service);
+        }
+    }
+
+    private static String outcome(RuntimeException ex) {
+        if (ex instanceof DeadlineExceededException) {
+            return "TIMEOUT";
+        }
+        if (ex instanceof HttpStatusCodeException status) {
+            return status.getStatusCode().is4xxClientError() ? "CLIENT_ERROR" : "SERVER_ERROR";
+        }
+        return ex instanceof ResourceAccessException ? "IO_ERROR" : "UNKNOWN";
+    }
+
+    private static String serviceId(String url) {
+        String host = UriComponentsBuilder.fromUriString(url).build().getHost();
+        return host == null ? "unknown" : host;
+    }
+
+    @Override
+    public void destroy() throws IOException {
+        hedgeExecutor.shutdownNow();
+        httpClient.close();
+    }
+
+    public static class DeadlineExceededException extends ResourceAccessException {
+
+        public DeadlineExceededException(String service) {
+            super("Deadline exceeded calling " + service);
+        }
+    }
+}
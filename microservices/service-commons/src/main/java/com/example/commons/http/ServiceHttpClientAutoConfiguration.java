@@ -0,0 +1,41 @@
+package com.example.commons.http;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerClient;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerInterceptor;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerRequestFactory;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * Provides {@link ServiceHttpClient} to the servlet services. It resolves service ids
+ * through the same load balancer as {@code @LoadBalanced} clients, so calls are spread
+ * by peak EWMA latency.
+ */
+@AutoConfiguration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnClass({CloseableHttpClient.class, MeterRegistry.class})
+@EnableConfigurationProperties(ServiceHttpClientProperties.class)
+public class ServiceHttpClientAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public ServiceHttpClient serviceHttpClient(ServiceHttpClientProperties properties,
+                                               ObjectProvider<RestTemplateBuilder> restTemplateBuilder,
+                                               LoadBalancerClient loadBalancerClient,
+                                               LoadBalancerRequestFactory requestFactory,
+                                               ObjectProvider<MeterRegistry> meterRegistry) {
+        return new ServiceHttpClient(properties,
+                restTemplateBuilder.getIfAvailable(RestTemplateBuilder::new),
+                new LoadBalancerInterceptor(loadBalancerClient, requestFactory),
+                meterRegistry.getIfAvailable(SimpleMeterRegistry::new));
+    }
+}
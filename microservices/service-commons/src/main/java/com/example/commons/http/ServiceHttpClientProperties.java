@@ -0,0 +1,31 @@
+package com.example.commons.http;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "commons.http-client")
+public class ServiceHttpClientProperties {
+
+    private int maxConnections = 200;
+    private int maxConnectionsPerRoute = 50;
+    private Duration connectTimeout = Duration.ofSeconds(1);
+    // How long a call may wait for a free pooled connection
+    private Duration poolTimeout = Duration.ofMillis(500);
+    // Shorter than Tomcat's 20s keep-alive, so we close idle connections before the server does
+    private Duration keepAlive = Duration.ofSeconds(15);
+    // Connections are recycled after this long, so instances that left Eureka are dropped
+    private Duration timeToLive = Duration.ofMinutes(2);
+    // Total time budget of a call, retries and hedges included, unless the caller passes its own
+    private Duration deadline = Duration.ofSeconds(2);
+    // Attempts for idempotent calls (GET, PUT, DELETE); POST is never retried
+    private int maxAttempts = 3;
+    private Duration retryBaseDelay = Duration.ofMillis(25);
+    private Duration retryMaxDelay = Duration.ofMillis(400);
+    // A GET still unanswered after this long is sent again to another instance (0 disables)
+    private Duration hedgeDelay = Duration.ofMillis(150);
+    // Exchange CBOR instead of JSON; public clients behind the gateway keep getting JSON
+    private boolean cbor = true;
+}
@@ -0,0 +1,61 @@
+package com.example.commons.loadbalancer;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Load estimate for one instance: requests in flight and a peak-sensitive EWMA of
+ * response time. A slower sample replaces the average immediately, faster ones
+ * decay it gradually, so a pausing instance is avoided at once and trusted again
+ * only once it has been fast for a while.
+ */
+public class InstanceStats {
+
+    private final long decayNanos;
+    private final long defaultRttNanos;
+    private final AtomicInteger outstanding = new AtomicInteger();
+
+    private double ewmaNanos;
+    private long lastUpdateNanos;
+
+    InstanceStats(long decayNanos, long defaultRttNanos) {
+        this.decayNanos = decayNanos;
+        this.defaultRttNanos = defaultRttNanos;
+        this.ewmaNanos = defaultRttNanos;
+        this.lastUpdateNanos = System.nanoTime();
+    }
+
+    public void onStart() {
+        outstanding.incrementAndGet();
+    }
+
+    public void onComplete(long rttNanos) {
+        outstanding.decrementAndGet();
+        observe(rttNanos);
+    }
+
+    public synchronized double cost() {
+        return currentEwma(System.nanoTime()) * (outstanding.get() + 1);
+    }
+
+    public int outstanding() {
+        return outstanding.get();
+    }
+
+    private synchronized void observe(long rttNanos) {
+        long now = System.nanoTime();
+        double ewma = currentEwma(now);
+        if (rttNanos > ewma) {
+            ewmaNanos = rttNanos;
+        } else {
+            double weight = Math.exp(-(double) (now - lastUpdateNanos) / decayNanos);
+            ewmaNanos = ewma * weight + rttNanos * (1 - weight);
+        }
+        lastUpdateNanos = now;
+    }
+
+    // Without new samples the estimate drifts back to the default, so an avoided instance gets retried
+    private double currentEwma(long now) {
+        double weight = Math.exp(-(double) (now - lastUpdateNanos) / decayNanos);
+        return defaultRttNanos + (ewmaNanos - defaultRttNanos) * weight;
+    }
+}
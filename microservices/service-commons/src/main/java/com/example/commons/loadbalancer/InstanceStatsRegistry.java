@@ -0,0 +1,30 @@
+package com.example.commons.loadbalancer;
+
+import org.springframework.cloud.client.ServiceInstance;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-instance load estimates shared by the load balancer (which reads them) and
+ * the lifecycle callbacks (which feed them), across all service ids.
+ */
+public class InstanceStatsRegistry {
+
+    private final long decayNanos;
+    private final long defaultRttNanos;
+    private final Map<String, InstanceStats> stats = new ConcurrentHashMap<>();
+
+    public InstanceStatsRegistry(PeakEwmaProperties properties) {
+        this.decayNanos = properties.getDecay().toNanos();
+        this.defaultRttNanos = properties.getDefaultRtt().toNanos();
+    }
+
+    public InstanceStats get(ServiceInstance instance) {
+        return stats.computeIfAbsent(key(instance), k -> new InstanceStats(decayNanos, defaultRttNanos));
+    }
+
+    private static String key(ServiceInstance instance) {
+        return instance.getServiceId().toLowerCase() + "@" + instance.getHost() + ":" + instance.getPort();
+    }
+}
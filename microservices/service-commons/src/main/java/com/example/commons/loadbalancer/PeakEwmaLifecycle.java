@@ -0,0 +1,73 @@
+package com.example.commons.loadbalancer;
+
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerLifecycle;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.client.loadbalancer.TimedRequestContext;
+
+/**
+ * Feeds {@link InstanceStatsRegistry} from both the gateway's reactive load-balancer
+ * filter and the blocking load-balancer client, which call the same lifecycle hooks
+ * around every request.
+ *
+ * <p>The gateway hands back the {@link PeakEwmaResponse} it was given, whose guard
+ * also covers cancellation. The blocking client wraps the instance in a plain
+ * response of its own; it always reaches {@link #onComplete}, so counting directly
+ * on the instance is safe there.
+ */
+public class PeakEwmaLifecycle implements LoadBalancerLifecycle<Object, Object, ServiceInstance> {
+
+    private final InstanceStatsRegistry registry;
+    private final long failurePenaltyNanos;
+
+    public PeakEwmaLifecycle(InstanceStatsRegistry registry, PeakEwmaProperties properties) {
+        this.registry = registry;
+        this.failurePenaltyNanos = properties.getFailurePenalty().toNanos();
+    }
+
+    @Override
+    public boolean supports(Class requestContextClass, Class responseClass, Class serverTypeClass) {
+        return ServiceInstance.class.isAssignableFrom(serverTypeClass);
+    }
+
+    @Override
+    public void onStart(Request<Object> request) {
+    }
+
+    @Override
+    public void onStartRequest(Request<Object> request, Response<ServiceInstance> lbResponse) {
+        if (lbResponse instanceof PeakEwmaResponse guarded) {
+            guarded.start();
+        } else if (lbResponse.hasServer()) {
+            if (request.getContext() instanceof TimedRequestContext timed && timed.getRequestStartTime() == 0) {
+                timed.setRequestStartTime(System.nanoTime());
+            }
+            registry.get(lbResponse.getServer()).onStart();
+        }
+    }
+
+    @Override
+    public void onComplete(CompletionContext<Object, ServiceInstance, Object> completionContext) {
+        Response<ServiceInstance> lbResponse = completionContext.getLoadBalancerResponse();
+        if (lbResponse == null || !lbResponse.hasServer()) {
+            return;
+        }
+        boolean failed = completionContext.status() == CompletionContext.Status.FAILED;
+        if (lbResponse instanceof PeakEwmaResponse guarded) {
+            guarded.finish(failed ? Math.max(guarded.elapsedNanos(), failurePenaltyNanos) : guarded.elapsedNanos());
+            return;
+        }
+        long rtt = 0;
+        Object context = completionContext.getLoadBalancerRequest() != null
+                ? completionContext.getLoadBalancerRequest().getContext() : null;
+        if (context instanceof TimedRequestContext timed && timed.getRequestStartTime() > 0) {
+            rtt = System.nanoTime() - timed.getRequestStartTime();
+        }
+        if (failed) {
+            rtt = Math.max(rtt, failurePenaltyNanos);
+        }
+        registry.get(lbResponse.getServer()).onComplete(rtt);
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.commons.loadbalancer;
+
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClients;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * Replaces round-robin with {@link PeakEwmaLoadBalancer} for every load-balanced
+ * client in the application: the gateway's {@code lb://} routes and
+ * {@code @LoadBalanced RestTemplate}s alike.
+ */
+@AutoConfiguration
+@ConditionalOnProperty(prefix = "commons.loadbalancer.peak-ewma", name = "enabled", matchIfMissing = true)
+@EnableConfigurationProperties(PeakEwmaProperties.class)
+@LoadBalancerClients(defaultConfiguration = PeakEwmaLoadBalancerConfiguration.class)
+public class PeakEwmaLoadBalancerAutoConfiguration {
+
+    @Bean
+    public InstanceStatsRegistry instanceStatsRegistry(PeakEwmaProperties properties) {
+        return new InstanceStatsRegistry(properties);
+    }
+
+    @Bean
+    public PeakEwmaLifecycle peakEwmaLifecycle(InstanceStatsRegistry registry, PeakEwmaProperties properties) {
+        return new PeakEwmaLifecycle(registry, properties);
+    }
+}
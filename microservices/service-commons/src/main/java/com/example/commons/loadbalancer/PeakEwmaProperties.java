@@ -0,0 +1,19 @@
+package com.example.commons.loadbalancer;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "commons.loadbalancer.peak-ewma")
+public class PeakEwmaProperties {
+
+    private boolean enabled = true;
+    // How quickly old latency samples stop counting
+    private Duration decay = Duration.ofSeconds(10);
+    // Assumed latency of an instance that has not answered yet
+    private Duration defaultRtt = Duration.ofMillis(100);
+    // Latency charged for a failed call, so failing instances are avoided
+    private Duration failurePenalty = Duration.ofSeconds(2);
+}
@@ -0,0 +1,53 @@
+package com.example.commons.loadbalancer;
+
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The chosen instance together with a guard for the request sent to it. The
+ * in-flight count is raised once when the request starts and lowered once when it
+ * ends, whichever of completion or cancellation gets there first, so a request
+ * cancelled by a timeout or a client disconnect cannot leave the count behind.
+ */
+public class PeakEwmaResponse extends DefaultResponse {
+
+    private static final int NEW = 0;
+    private static final int STARTED = 1;
+    private static final int FINISHED = 2;
+
+    private final InstanceStats stats;
+    private final AtomicInteger state = new AtomicInteger(NEW);
+    private volatile long startNanos;
+
+    public PeakEwmaResponse(ServiceInstance instance, InstanceStats stats) {
+        super(instance);
+        this.stats = stats;
+    }
+
+    void start() {
+        if (state.compareAndSet(NEW, STARTED)) {
+            startNanos = System.nanoTime();
+            stats.onStart();
+        }
+    }
+
+    void finish(long rttNanos) {
+        if (state.compareAndSet(STARTED, FINISHED)) {
+            stats.onComplete(rttNanos);
+        }
+    }
+
+    long elapsedNanos() {
+        return state.get() == NEW ? 0 : System.nanoTime() - startNanos;
+    }
+
+    /**
+     * Ends a request that was abandoned before its completion callback ran. The time
+     * spent so far counts as its latency: for a timeout that is at least the limit.
+     */
+    public void cancel() {
+        finish(elapsedNanos());
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.commons.outbox;
+
+import com.example.commons.http.ServiceHttpClient;
+import lombok.RequiredArgsConstructor;
+
+import java.util.List;
+
+@RequiredArgsConstructor
+public class NotificationsSubscriber implements OutboxSubscriber {
+
+    private static final String EVENTS_URL = "http://notifications-service/api/notifications/events";
+
+    private final ServiceHttpClient httpClient;
+
+    @Override
+    public String name() {
+        return "notifications-service";
+    }
+
+    @Override
+    public void deliver(List<DomainEvent> events) {
+        httpClient.post(EVENTS_URL, events, Void.class);
+    }
+}
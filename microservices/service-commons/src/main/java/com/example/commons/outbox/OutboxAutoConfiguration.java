@@ -0,0 +1,46 @@
+package com.example.commons.outbox;
+
+import com.example.commons.http.ServiceHttpClient;
+import com.example.commons.http.ServiceHttpClientAutoConfiguration;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.data.mongo.MongoDataAutoConfiguration;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+/**
+ * Relays the pending events of the service's aggregate collection
+ * ({@code commons.outbox.collection}) to every {@link OutboxSubscriber} bean, the
+ * notifications service included. Needs {@code @EnableScheduling} in the service.
+ */
+@AutoConfiguration(after = {MongoDataAutoConfiguration.class, ServiceHttpClientAutoConfiguration.class})
+@ConditionalOnClass({MongoTemplate.class, MeterRegistry.class})
+@ConditionalOnProperty(prefix = "commons.outbox", name = "collection")
+@EnableConfigurationProperties(OutboxProperties.class)
+public class OutboxAutoConfiguration {
+
+    @Bean
+    @ConditionalOnBean(ServiceHttpClient.class)
+    @ConditionalOnMissingBean
+    public NotificationsSubscriber notificationsSubscriber(ServiceHttpClient httpClient) {
+        return new NotificationsSubscriber(httpClient);
+    }
+
+    @Bean
+    @ConditionalOnBean(MongoTemplate.class)
+    @ConditionalOnMissingBean
+    public OutboxRelay outboxRelay(MongoTemplate mongoTemplate,
+                                   ObjectProvider<OutboxSubscriber> subscribers,
+                                   OutboxProperties properties,
+                                   ObjectProvider<MeterRegistry> meterRegistry) {
+        return new OutboxRelay(mongoTemplate, subscribers.orderedStream().toList(), properties,
+                meterRegistry.getIfAvailable(SimpleMeterRegistry::new));
+    }
+}
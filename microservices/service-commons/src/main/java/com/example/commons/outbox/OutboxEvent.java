@@ -0,0 +1,30 @@
+package com.example.commons.outbox;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * A domain event waiting to be relayed. Events are embedded in the aggregate's own
+ * document ({@code pendingEvents}), so recording one is part of the same
+ * single-document write as the state change it describes.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class OutboxEvent {
+    private String eventId;
+    private String type;
+    private LocalDateTime occurredAt;
+    private Map<String, Object> payload;
+    // Failed deliveries charged to this event; see OutboxRelay
+    private int attempts;
+
+    public static OutboxEvent of(String type, Map<String, Object> payload) {
+        return new OutboxEvent(UUID.randomUUID().toString(), type, LocalDateTime.now(), payload, 0);
+    }
+}
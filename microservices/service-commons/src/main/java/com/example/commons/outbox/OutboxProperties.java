@@ -0,0 +1,24 @@
+package com.example.commons.outbox;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "commons.outbox")
+public class OutboxProperties {
+
+    // Aggregate collection whose pendingEvents are relayed; no relay is created when unset
+    private String collection;
+    // Sent as DomainEvent.aggregateType, e.g. "Booking"
+    private String aggregateType;
+    private boolean enabled = true;
+    private Duration interval = Duration.ofSeconds(1);
+    // Aggregates read per batch
+    private int batchSize = 100;
+    // Isolated delivery failures before an aggregate's events are parked in outbox_dead_letters
+    private int maxAttempts = 5;
+    // Only the instance holding the lease relays; another one takes over after it lapses
+    private Duration lease = Duration.ofSeconds(30);
+}
@@ -0,0 +1,233 @@
+package com.example.commons.outbox;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Polls one aggregate collection for documents with pending events, hands them to
+ * every subscriber and then pulls the delivered events from their documents.
+ *
+ * Delivery is at-least-once: a failure or crash before the pull means the same
+ * events are sent again. All pending events of an aggregate travel in one batch,
+ * oldest first. Only the instance holding the lease in {@code outbox_leases} relays,
+ * so per-aggregate order holds however many instances run.
+ *
+ * When a batch is refused, its aggregates are retried one at a time. An aggregate
+ * that fails while others go through is charged an attempt, and after
+ * {@code commons.outbox.max-attempts} its events are parked in
+ * {@code outbox_dead_letters} so the rest of the outbox can move on. If none goes
+ * through the subscriber is taken to be down and nothing is charged.
+ */
+@Slf4j
+public class OutboxRelay {
+
+    static final String LEASE_COLLECTION = "outbox_leases";
+    static final String DEAD_LETTER_COLLECTION = "outbox_dead_letters";
+    private static final int MAX_BATCHES_PER_RUN = 10;
+
+    private final MongoTemplate mongoTemplate;
+    private final List<OutboxSubscriber> subscribers;
+    private final OutboxProperties properties;
+    private final String instanceId = UUID.randomUUID().toString();
+
+    private final AtomicLong lagMillis = new AtomicLong();
+    private final Counter delivered;
+    private final Counter failures;
+    private final Counter parked;
+
+    public OutboxRelay(MongoTemplate mongoTemplate, List<OutboxSubscriber> subscribers,
+                       OutboxProperties properties, MeterRegistry meterRegistry) {
+        this.mongoTemplate = mongoTemplate;
+        this.subscribers = subscribers;
+        this.properties = properties;
+
+        String aggregateType = properties.getAggregateType();
+        Gauge.builder("outbox.relay.lag", lagMillis, value -> value.get() / 1000.0)
+                .description("Age of the oldest undelivered event")
+                .baseUnit("seconds")
+                .tag("aggregate", aggregateType)
+                .register(meterRegistry);
+        this.delivered = Counter.builder("outbox.relay.delivered").tag("aggregate", aggregateType).register(meterRegistry);
+        this.failures = Counter.builder("outbox.relay.failures").tag("aggregate", aggregateType).register(meterRegistry);
+        this.parked = Counter.builder("outbox.relay.parked").tag("aggregate", aggregateType).register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${commons.outbox.interval:1s}")
+    public void relay() {
+        if (!properties.isEnabled() || !holdLease()) {
+            return;
+        }
+        for (int i = 0; i < MAX_BATCHES_PER_RUN; i++) {
+            if (relayBatch() < properties.getBatchSize()) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Relays one batch and returns how many aggregates were cleared, or 0 when the run
+     * should stop.
+     */
+    int relayBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        Query query = Query.query(Criteria.where("pendingEvents.occurredAt").lte(now))
+                .with(Sort.by(Sort.Direction.ASC, "pendingEvents.occurredAt"))
+                .limit(properties.getBatchSize());
+        query.fields().include("pendingEvents");
+        List<PendingAggregate> aggregates = mongoTemplate.find(query, PendingAggregate.class, properties.getCollection());
+
+        List<DomainEvent> events = new ArrayList<>();
+        LocalDateTime oldest = now;
+        for (PendingAggregate aggregate : aggregates) {
+            events.addAll(toDomainEvents(aggregate));
+            for (OutboxEvent event : aggregate.pendingEvents()) {
+                if (event.getOccurredAt() != null && event.getOccurredAt().isBefore(oldest)) {
+                    oldest = event.getOccurredAt();
+                }
+            }
+        }
+        lagMillis.set(Duration.between(oldest, now).toMillis());
+        if (events.isEmpty()) {
+            return 0;
+        }
+
+        if (deliver(events) == null) {
+            pull(aggregates);
+            delivered.increment(events.size());
+            return aggregates.size();
+        }
+        if (aggregates.size() > 1) {
+            isolate(aggregates);
+        }
+        return 0;
+    }
+
+    // Retries aggregates one at a time so a single poison event cannot hold back the others
+    private void isolate(List<PendingAggregate> aggregates) {
+        Map<PendingAggregate, String> failed = new LinkedHashMap<>();
+        boolean anyDelivered = false;
+        for (PendingAggregate aggregate : aggregates) {
+            List<DomainEvent> events = toDomainEvents(aggregate);
+            RuntimeException error = deliver(events);
+            if (error == null) {
+                pull(List.of(aggregate));
+                delivered.increment(events.size());
+                anyDelivered = true;
+            } else {
+                failed.put(aggregate, error.getMessage());
+            }
+        }
+        if (anyDelivered) {
+            failed.forEach(this::charge);
+        }
+    }
+
+    // Returns the first subscriber failure, or null when every subscriber took the events
+    private RuntimeException deliver(List<DomainEvent> events) {
+        for (OutboxSubscriber subscriber : subscribers) {
+            try {
+                subscriber.deliver(events);
+            } catch (RuntimeException ex) {
+                failures.increment();
+                log.warn("Relaying {} {} events to {} failed: {}", events.size(), properties.getAggregateType(),
+                        subscriber.name(), ex.getMessage());
+                return ex;
+            }
+        }
+        return null;
+    }
+
+    private void charge(PendingAggregate aggregate, String error) {
+        List<String> exhausted = new ArrayList<>();
+        List<String> retry = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+        for (OutboxEvent event : aggregate.pendingEvents()) {
+            if (event.getAttempts() + 1 >= properties.getMaxAttempts()) {
+                event.setAttempts(event.getAttempts() + 1);
+                mongoTemplate.save(new DeadLetter(event.getEventId(), properties.getAggregateType(), aggregate.id(),
+                        event, error, now), DEAD_LETTER_COLLECTION);
+                exhausted.add(event.getEventId());
+            } else {
+                retry.add(event.getEventId());
+            }
+        }
+
+        Query byId = Query.query(Criteria.where("_id").is(aggregate.id()));
+        if (!exhausted.isEmpty()) {
+            mongoTemplate.updateFirst(byId, pullEvents(exhausted), properties.getCollection());
+            parked.increment(exhausted.size());
+            log.error("Parked {} {} events of {} after {} attempts: {}", exhausted.size(),
+                    properties.getAggregateType(), aggregate.id(), properties.getMaxAttempts(), error);
+        }
+        if (!retry.isEmpty()) {
+            mongoTemplate.updateFirst(byId,
+                    new Update().inc("pendingEvents.$[e].attempts", 1)
+                            .filterArray(Criteria.where("e.eventId").in(retry)),
+                    properties.getCollection());
+        }
+    }
+
+    // Pull only what was sent; events appended meanwhile stay for the next run
+    private void pull(List<PendingAggregate> aggregates) {
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, properties.getCollection());
+        for (PendingAggregate aggregate : aggregates) {
+            List<String> eventIds = aggregate.pendingEvents().stream().map(OutboxEvent::getEventId).toList();
+            bulk.updateOne(Query.query(Criteria.where("_id").is(aggregate.id())), pullEvents(eventIds));
+        }
+        bulk.execute();
+    }
+
+    private static Update pullEvents(List<String> eventIds) {
+        return new Update().pull("pendingEvents", new Document("eventId", new Document("$in", eventIds)));
+    }
+
+    private List<DomainEvent> toDomainEvents(PendingAggregate aggregate) {
+        return aggregate.pendingEvents().stream()
+                .map(event -> new DomainEvent(properties.getAggregateType(), aggregate.id(), event.getEventId(),
+                        event.getType(), event.getOccurredAt(), event.getPayload()))
+                .toList();
+    }
+
+    // Takes or renews the lease; a live lease held by another instance fails the upsert on _id
+    private boolean holdLease() {
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            mongoTemplate.upsert(
+                    Query.query(Criteria.where("_id").is(properties.getCollection())
+                            .orOperator(Criteria.where("owner").is(instanceId), Criteria.where("expiresAt").lt(now))),
+                    new Update().set("owner", instanceId).set("expiresAt", now.plus(properties.getLease())),
+                    LEASE_COLLECTION);
+            return true;
+        } catch (DuplicateKeyException held) {
+            return false;
+        }
+    }
+
+    record PendingAggregate(@Id String id, List<OutboxEvent> pendingEvents) {
+    }
+
+    record DeadLetter(@Id String id, String aggregateType, String aggregateId, OutboxEvent event,
+                      String error, LocalDateTime parkedAt) {
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.commons.outbox;
+
+import java.util.List;
+
+/**
+ * Receives relayed events, in order per aggregate. Throwing leaves the batch in the
+ * outbox to be retried, so implementations must tolerate redelivery.
+ */
+public interface OutboxSubscriber {
+
+    String name();
+
+    void deliver(List<DomainEvent> events);
+}
@@ -0,0 +1,71 @@
+package com.example.commons.web;
+
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Conditional GET from an entity's last modification time. Checks the request's
+ * {@code If-None-Match} / {@code If-Modified-Since} against it and, whatever the
+ * outcome, sets {@code ETag} and {@code Last-Modified} on the response. When this
+ * returns {@code true} the response is already a 304 and the handler should return
+ * {@code null} without loading the entity.
+ *
+ * <p>The ETag is strong: it carries the millisecond timestamp and the representation
+ * (JSON or CBOR) the request will be answered with, and the response varies on
+ * {@code Accept}. {@code Last-Modified} is compared at the one-second resolution of
+ * HTTP dates, so a change later in the same second is only caught by the ETag.
+ */
+public final class ConditionalGet {
+
+    private ConditionalGet() {
+    }
+
+    public static boolean notModified(WebRequest request, LocalDateTime lastModified) {
+        long millis = lastModified.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        long seconds = millis - Math.floorMod(millis, 1000L);
+        if (request instanceof NativeWebRequest nativeRequest) {
+            HttpServletResponse response = nativeRequest.getNativeResponse(HttpServletResponse.class);
+            if (response != null) {
+                response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+            }
+        }
+        String etag = "\"" + Long.toHexString(millis) + "-" + representation(request.getHeader(HttpHeaders.ACCEPT)) + "\"";
+        return request.checkNotModified(etag, seconds);
+    }
+
+    // Mirrors the converter order: CBOR only for callers that prefer it over JSON
+    private static String representation(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return "json";
+        }
+        List<MediaType> types;
+        try {
+            types = new ArrayList<>(MediaType.parseMediaTypes(accept));
+        } catch (InvalidMediaTypeException ex) {
+            return "json";
+        }
+        types.sort(Comparator.comparingDouble(MediaType::getQualityValue).reversed());
+        for (MediaType type : types) {
+            if (type.getQualityValue() == 0) {
+                continue;
+            }
+            if (type.equalsTypeAndSubtype(MediaType.APPLICATION_CBOR)) {
+                return "cbor";
+            }
+            if (type.isCompatibleWith(MediaType.APPLICATION_JSON)) {
+                return "json";
+            }
+        }
+        return "json";
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.commons.concurrency;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private final ConcurrencyLimitProperties properties = new ConcurrencyLimitProperties();
+
+    @Test
+    void nonCriticalRequestsLeaveHeadroomForCriticalOnes() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(properties);
+
+        int nonCritical = 0;
+        while (limiter.tryAcquire(false)) {
+            nonCritical++;
+        }
+        int critical = 0;
+        while (limiter.tryAcquire(true)) {
+            critical++;
+        }
+
+        assertThat(nonCritical).isEqualTo(32);
+        assertThat(critical).isEqualTo(8);
+        assertThat(limiter.getInflight()).isEqualTo(40);
+        assertThat(limiter.getRejected(false)).isEqualTo(1);
+        assertThat(limiter.getRejected(true)).isEqualTo(1);
+    }
+
+    @Test
+    void limitGrowsWhileLatencyHolds() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(properties);
+
+        saturate(limiter, Duration.ofMillis(10), 200);
+
+        assertThat(limiter.getLimit()).isGreaterThan(properties.getInitialLimit());
+        assertThat(limiter.getLimit()).isLessThanOrEqualTo(properties.getMaxLimit());
+    }
+
+    @Test
+    void limitShrinksOnceRequestsQueue() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(properties);
+        saturate(limiter, Duration.ofMillis(10), 50);
+        int healthy = limiter.getLimit();
+
+        saturate(limiter, Duration.ofMillis(100), 200);
+
+        assertThat(limiter.getLimit()).isLessThan(healthy / 2);
+        assertThat(limiter.getLimit()).isGreaterThanOrEqualTo(properties.getMinLimit());
+    }
+
+    @Test
+    void lightlyLoadedSamplesDoNotMoveTheLimit() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(properties);
+
+        for (int i = 0; i < 200; i++) {
+            limiter.tryAcquire(true);
+            limiter.release(Duration.ofMillis(i < 100 ? 10 : 500).toNanos(), true);
+        }
+
+        assertThat(limiter.getLimit()).isEqualTo(properties.getInitialLimit());
+    }
+
+    @Test
+    void asyncRequestsFreeTheirSlotWithoutSampling() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(properties);
+        saturate(limiter, Duration.ofMillis(10), 50);
+        int limit = limiter.getLimit();
+        int inflight = limiter.getInflight();
+
+        // An SSE stream held open for minutes says nothing about load
+        limiter.release(Duration.ofMinutes(5).toNanos(), false);
+
+        assertThat(limiter.getLimit()).isEqualTo(limit);
+        assertThat(limiter.getInflight()).isEqualTo(inflight - 1);
+    }
+
+    // Keeps the limiter full and completes one request per sample at the given latency
+    private static void saturate(AdaptiveConcurrencyLimiter limiter, Duration rtt, int samples) {
+        for (int i = 0; i < samples; i++) {
+            while (limiter.tryAcquire(true)) {
+                // fill up to the current limit
+            }
+            limiter.release(rtt.toNanos(), true);
+        }
+    }
+}
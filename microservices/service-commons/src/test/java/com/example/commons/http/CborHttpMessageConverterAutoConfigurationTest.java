@@ -0,0 +1,127 @@
+package com.example.commons.http;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.http.HttpMessageConvertersAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.WebMvcAutoConfiguration;
+import org.springframework.boot.test.context.runner.WebApplicationContextRunner;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class CborHttpMessageConverterAutoConfigurationTest {
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+    private static final ObjectMapper CBOR = new ObjectMapper(new CBORFactory());
+
+    private final WebApplicationContextRunner contextRunner = new WebApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(
+                    JacksonAutoConfiguration.class,
+                    HttpMessageConvertersAutoConfiguration.class,
+                    WebMvcAutoConfiguration.class,
+                    CborHttpMessageConverterAutoConfiguration.class))
+            .withUserConfiguration(RideController.class);
+
+    @Test
+    void serviceClientRoundTripsCbor() {
+        contextRunner.run(context -> {
+            MockMvc mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+            Ride ride = new Ride("r1", "Tunis", "Sousse", 3, 12.5);
+
+            MvcResult result = mockMvc.perform(post("/rides")
+                            .contentType(MediaType.APPLICATION_CBOR)
+                            .header(HttpHeaders.ACCEPT, "application/cbor, application/json")
+                            .content(CBOR.writeValueAsBytes(ride)))
+                    .andExpect(status().isOk())
+                    .andReturn();
+
+            assertThat(MediaType.parseMediaType(result.getResponse().getContentType()))
+                    .isEqualTo(MediaType.APPLICATION_CBOR);
+            assertThat(CBOR.readValue(result.getResponse().getContentAsByteArray(), Ride.class)).isEqualTo(ride);
+        });
+    }
+
+    @Test
+    void clientsThatDoNotAskForCborGetJson() {
+        contextRunner.run(context -> {
+            MockMvc mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+
+            // No Accept header, curl's */*, the Angular client, and an explicit JSON request
+            for (String accept : new String[] {null, "*/*", "application/json, text/plain, */*", "application/json"}) {
+                MvcResult result = mockMvc.perform(accept == null
+                                ? get("/rides/r1")
+                                : get("/rides/r1").header(HttpHeaders.ACCEPT, accept))
+                        .andExpect(status().isOk())
+                        .andReturn();
+
+                assertThat(MediaType.parseMediaType(result.getResponse().getContentType()))
+                        .as("Accept: %s", accept)
+                        .isEqualTo(MediaType.APPLICATION_JSON);
+                assertThat(JSON.readValue(result.getResponse().getContentAsString(), Ride.class).id()).isEqualTo("r1");
+            }
+        });
+    }
+
+    @Test
+    void jsonRequestBodiesAreStillAccepted() {
+        contextRunner.run(context -> {
+            MockMvc mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+            Ride ride = new Ride("r2", "Sfax", "Tunis", 1, 20.0);
+
+            MvcResult result = mockMvc.perform(post("/rides")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(JSON.writeValueAsBytes(ride)))
+                    .andExpect(status().isOk())
+                    .andReturn();
+
+            assertThat(JSON.readValue(result.getResponse().getContentAsString(), Ride.class)).isEqualTo(ride);
+        });
+    }
+
+    @Test
+    void cborPayloadIsSmallerThanJson() throws Exception {
+        List<Ride> rides = IntStream.range(0, 100)
+                .mapToObj(i -> new Ride("65f1c0d2e4b0a1b2c3d4e5" + String.format("%02d", i), "Tunis", "Sousse", i % 4, 10.0 + i))
+                .toList();
+
+        int json = JSON.writeValueAsBytes(rides).length;
+        int cbor = CBOR.writeValueAsBytes(rides).length;
+
+        // Field names are still written per object, so the saving comes from framing and numbers
+        assertThat(cbor).isLessThan(json * 9 / 10);
+    }
+
+    record Ride(String id, String departureCity, String arrivalCity, int availableSeats, double price) {}
+
+    @RestController
+    static class RideController {
+
+        @GetMapping("/rides/{id}")
+        Ride get(@PathVariable String id) {
+            return new Ride(id, "Tunis", "Sousse", 2, 15.0);
+        }
+
+        @PostMapping("/rides")
+        Ride echo(@RequestBody Ride ride) {
+            return ride;
+        }
+    }
+}
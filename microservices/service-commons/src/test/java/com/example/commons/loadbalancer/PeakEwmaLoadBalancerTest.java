@@ -0,0 +1,106 @@
+package com.example.commons.loadbalancer;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.DefaultRequest;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.Response;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PeakEwmaLoadBalancerTest {
+
+    private final PeakEwmaProperties properties = new PeakEwmaProperties();
+    private final InstanceStatsRegistry registry = new InstanceStatsRegistry(properties);
+    private final PeakEwmaLifecycle lifecycle = new PeakEwmaLifecycle(registry, properties);
+    private final PeakEwmaLoadBalancer balancer = new PeakEwmaLoadBalancer(null, "ride-service", registry);
+
+    private final ServiceInstance fast = instance("10.0.0.1");
+    private final ServiceInstance slow = instance("10.0.0.2");
+    private final ServiceInstance other = instance("10.0.0.3");
+
+    @Test
+    void slowInstanceIsNeverPickedOverFasterOnes() {
+        serve(fast, Duration.ofMillis(10));
+        serve(other, Duration.ofMillis(20));
+        serve(slow, Duration.ofMillis(800));
+
+        for (int i = 0; i < 1_000; i++) {
+            assertThat(balancer.choose(List.of(fast, slow, other)).getServer()).isNotEqualTo(slow);
+        }
+    }
+
+    @Test
+    void busyInstanceIsAvoided() {
+        for (int i = 0; i < 5; i++) {
+            registry.get(fast).onStart();
+        }
+
+        assertThat(balancer.choose(List.of(fast, other)).getServer()).isEqualTo(other);
+    }
+
+    @Test
+    void failedCallIsChargedThePenalty() {
+        Request<Object> request = new DefaultRequest<>();
+        Response<ServiceInstance> chosen = balancer.choose(List.of(fast));
+        lifecycle.onStartRequest(request, chosen);
+        lifecycle.onComplete(new CompletionContext<>(CompletionContext.Status.FAILED, request, chosen));
+        serve(other, Duration.ofMillis(10));
+
+        assertThat(registry.get(fast).cost()).isGreaterThan(registry.get(other).cost());
+        assertThat(balancer.choose(List.of(fast, other)).getServer()).isEqualTo(other);
+    }
+
+    @Test
+    void cancelledRequestReleasesItsSlotOnce() {
+        Request<Object> request = new DefaultRequest<>();
+        Response<ServiceInstance> chosen = balancer.choose(List.of(fast));
+        lifecycle.onStartRequest(request, chosen);
+        assertThat(registry.get(fast).outstanding()).isEqualTo(1);
+
+        ((PeakEwmaResponse) chosen).cancel();
+        assertThat(registry.get(fast).outstanding()).isZero();
+
+        // A completion arriving after the cancel must not count the request again
+        lifecycle.onComplete(new CompletionContext<>(CompletionContext.Status.SUCCESS, request, chosen));
+        assertThat(registry.get(fast).outstanding()).isZero();
+    }
+
+    @Test
+    void timedOutRequestsDoNotAccumulate() {
+        for (int i = 0; i < 100; i++) {
+            Response<ServiceInstance> chosen = balancer.choose(List.of(slow));
+            lifecycle.onStartRequest(new DefaultRequest<>(), chosen);
+            ((PeakEwmaResponse) chosen).cancel();
+        }
+
+        assertThat(registry.get(slow).outstanding()).isZero();
+    }
+
+    @Test
+    void blockingClientResponsesAreCountedOnTheInstance() {
+        Request<Object> request = new DefaultRequest<>();
+        Response<ServiceInstance> plain = new DefaultResponse(fast);
+        lifecycle.onStartRequest(request, plain);
+        assertThat(registry.get(fast).outstanding()).isEqualTo(1);
+
+        lifecycle.onComplete(new CompletionContext<>(CompletionContext.Status.SUCCESS, request, plain));
+        assertThat(registry.get(fast).outstanding()).isZero();
+    }
+
+    private void serve(ServiceInstance instance, Duration rtt) {
+        InstanceStats stats = registry.get(instance);
+        stats.onStart();
+        stats.onComplete(rtt.toNanos());
+    }
+
+    private static ServiceInstance instance(String host) {
+        return new DefaultServiceInstance(host + ":8085", "ride-service", host, 8085, false);
+    }
+}
@@ -0,0 +1,173 @@
+package com.example.commons.outbox;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OutboxRelayTest {
+
+    private static final String COLLECTION = "bookings";
+
+    private static MongoServer server;
+    private static MongoClient client;
+    private static MongoTemplate mongoTemplate;
+
+    @BeforeAll
+    static void connect() {
+        server = new MongoServer(new MemoryBackend());
+        client = MongoClients.create(server.bindAndGetConnectionString());
+        mongoTemplate = new MongoTemplate(client, "outbox_test");
+    }
+
+    @AfterAll
+    static void disconnect() {
+        client.close();
+        server.shutdown();
+    }
+
+    @BeforeEach
+    void clean() {
+        mongoTemplate.getDb().drop();
+    }
+
+    @Test
+    void deliversPendingEventsAndPullsThem() {
+        insert("b1", event("BookingCreated", 0));
+        insert("b2", event("BookingCreated", 0));
+        RecordingSubscriber subscriber = new RecordingSubscriber(events -> true);
+
+        relay(subscriber).relay();
+
+        assertThat(subscriber.received).hasSize(2)
+                .allSatisfy(event -> assertThat(event.aggregateType()).isEqualTo("Booking"));
+        assertThat(pending("b1")).isEmpty();
+        assertThat(pending("b2")).isEmpty();
+    }
+
+    @Test
+    void poisonEventIsParkedWhileOthersKeepFlowing() {
+        OutboxEvent poison = event("BookingCreated", 5);
+        insert("poison", poison);
+        insert("b1", event("BookingCreated", 0));
+        RecordingSubscriber subscriber = new RecordingSubscriber(
+                events -> events.stream().noneMatch(e -> e.aggregateId().equals("poison")));
+        OutboxRelay relay = relay(subscriber);
+
+        relay.relay();
+        assertThat(pending("b1")).isEmpty();
+        assertThat(pending("poison")).singleElement()
+                .satisfies(event -> assertThat(event.getAttempts()).isEqualTo(1));
+
+        insert("b2", event("BookingCreated", 0));
+        relay.relay();
+
+        assertThat(pending("b2")).isEmpty();
+        assertThat(pending("poison")).isEmpty();
+        Document deadLetter = mongoTemplate.findById(poison.getEventId(), Document.class,
+                OutboxRelay.DEAD_LETTER_COLLECTION);
+        assertThat(deadLetter).isNotNull();
+        assertThat(deadLetter.getString("aggregateId")).isEqualTo("poison");
+        assertThat(deadLetter.getString("error")).isEqualTo("rejected");
+    }
+
+    @Test
+    void outageChargesNoAttempts() {
+        insert("b1", event("BookingCreated", 0));
+        insert("b2", event("BookingCreated", 0));
+        OutboxRelay relay = relay(new RecordingSubscriber(events -> false));
+
+        for (int i = 0; i < 5; i++) {
+            relay.relay();
+        }
+
+        assertThat(pending("b1")).singleElement().satisfies(event -> assertThat(event.getAttempts()).isZero());
+        assertThat(pending("b2")).singleElement().satisfies(event -> assertThat(event.getAttempts()).isZero());
+        assertThat(mongoTemplate.count(new Query(),
+                OutboxRelay.DEAD_LETTER_COLLECTION)).isZero();
+    }
+
+    @Test
+    void onlyTheLeaseHolderRelays() {
+        RecordingSubscriber first = new RecordingSubscriber(events -> true);
+        RecordingSubscriber second = new RecordingSubscriber(events -> true);
+        OutboxRelay leader = relay(first);
+        OutboxRelay standby = relay(second);
+
+        leader.relay();
+        insert("b1", event("BookingCreated", 0));
+        standby.relay();
+
+        assertThat(second.received).isEmpty();
+        assertThat(pending("b1")).hasSize(1);
+
+        leader.relay();
+        assertThat(first.received).hasSize(1);
+    }
+
+    private OutboxRelay relay(OutboxSubscriber subscriber) {
+        OutboxProperties properties = new OutboxProperties();
+        properties.setCollection(COLLECTION);
+        properties.setAggregateType("Booking");
+        properties.setMaxAttempts(2);
+        return new OutboxRelay(mongoTemplate, List.of(subscriber), properties, new SimpleMeterRegistry());
+    }
+
+    private static void insert(String id, OutboxEvent... events) {
+        mongoTemplate.insert(new Aggregate(id, new ArrayList<>(List.of(events))), COLLECTION);
+    }
+
+    private static List<OutboxEvent> pending(String id) {
+        return mongoTemplate.findById(id, Aggregate.class, COLLECTION).pendingEvents();
+    }
+
+    // minutesAgo orders events: the relay reads the oldest first
+    private static OutboxEvent event(String type, int minutesAgo) {
+        return new OutboxEvent(UUID.randomUUID().toString(), type, LocalDateTime.now().minusMinutes(minutesAgo),
+                Map.of("status", "PENDING"), 0);
+    }
+
+    record Aggregate(@Id String id, List<OutboxEvent> pendingEvents) {
+    }
+
+    private static class RecordingSubscriber implements OutboxSubscriber {
+
+        private final Predicate<List<DomainEvent>> accepts;
+        private final List<DomainEvent> received = new ArrayList<>();
+
+        RecordingSubscriber(Predicate<List<DomainEvent>> accepts) {
+            this.accepts = accepts;
+        }
+
+        @Override
+        public String name() {
+            return "recording";
+        }
+
+        @Override
+        public void deliver(List<DomainEvent> events) {
+            if (!accepts.test(events)) {
+                throw new IllegalStateException("rejected");
+            }
+            received.addAll(events);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.commons.web;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConditionalGetTest {
+
+    // Half a second past a whole second
+    private static final LocalDateTime MODIFIED = LocalDateTime.of(2026, 3, 1, 12, 0, 0, 500_000_000);
+    private static final long MODIFIED_SECOND =
+            MODIFIED.withNano(0).atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+
+    @Test
+    void lastModifiedIsComparedAtSecondResolution() {
+        MockHttpServletResponse first = new MockHttpServletResponse();
+        ConditionalGet.notModified(new ServletWebRequest(new MockHttpServletRequest("GET", "/rides/r1"), first), MODIFIED);
+        assertThat(first.getDateHeader(HttpHeaders.LAST_MODIFIED)).isEqualTo(MODIFIED_SECOND);
+
+        // A client echoing the Last-Modified it was given is not sent the body again
+        MockHttpServletRequest revalidate = new MockHttpServletRequest("GET", "/rides/r1");
+        revalidate.addHeader(HttpHeaders.IF_MODIFIED_SINCE, MODIFIED_SECOND);
+        assertThat(ConditionalGet.notModified(
+                new ServletWebRequest(revalidate, new MockHttpServletResponse()), MODIFIED)).isTrue();
+
+        MockHttpServletRequest stale = new MockHttpServletRequest("GET", "/rides/r1");
+        stale.addHeader(HttpHeaders.IF_MODIFIED_SINCE, MODIFIED_SECOND - 1_000);
+        assertThat(ConditionalGet.notModified(
+                new ServletWebRequest(stale, new MockHttpServletResponse()), MODIFIED)).isFalse();
+    }
+
+    @Test
+    void etagIsStrongAndSeparatesJsonFromCbor() {
+        String json = etag(null);
+        String cbor = etag("application/cbor, application/json");
+
+        assertThat(json).startsWith("\"").doesNotStartWith("W/");
+        assertThat(cbor).startsWith("\"").isNotEqualTo(json);
+        assertThat(etag("application/json, text/plain, */*")).isEqualTo(json);
+        assertThat(etag("*/*")).isEqualTo(json);
+        assertThat(etag("application/json, application/cbor;q=0.5")).isEqualTo(json);
+    }
+
+    @Test
+    void jsonEtagDoesNotValidateACborRequest() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/rides/r1");
+        request.addHeader(HttpHeaders.ACCEPT, "application/cbor, application/json");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, etag(null));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertThat(ConditionalGet.notModified(new ServletWebRequest(request, response), MODIFIED)).isFalse();
+        assertThat(response.getHeaders(HttpHeaders.VARY)).contains(HttpHeaders.ACCEPT);
+    }
+
+    @Test
+    void changeWithinTheSameSecondChangesTheEtag() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/rides/r1");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, etag(null));
+
+        assertThat(ConditionalGet.notModified(
+                new ServletWebRequest(request, new MockHttpServletResponse()), MODIFIED.plusNanos(200_000_000))).isFalse();
+    }
+
+    private static String etag(String accept) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/rides/r1");
+        if (accept != null) {
+            request.addHeader(HttpHeaders.ACCEPT, accept);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        ConditionalGet.notModified(new ServletWebRequest(request, response), MODIFIED);
+        return response.getHeader(HttpHeaders.ETAG);
+    }
+}